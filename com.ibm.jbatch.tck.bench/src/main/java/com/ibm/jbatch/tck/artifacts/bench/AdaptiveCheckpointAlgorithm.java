@@ -0,0 +1,120 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractCheckpointAlgorithm;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Sizes each chunk so that it takes about "target.millis" from its start to its commit, from a moving average of 
+ * the time per item of the chunks so far (each chunk's whole time, commit included, over its items).
+ *
+ * The clock is only read in beginCheckpoint() and endCheckpoint(), so isReadyToCheckpoint() is just a count.
+ *
+ * Properties (defaults in parentheses):
+ * <ul>
+ * <li>target.millis - the chunk time aimed for (1000)
+ * <li>initial.item.count - size of the first chunk, before there are any times (10)
+ * <li>min.item.count - (1)
+ * <li>max.item.count - (100000)
+ * <li>smoothing - the weight, between 0 and 1, of the latest chunk in the average (0.25)
+ * </ul>
+ */
+@Named
+public class AdaptiveCheckpointAlgorithm extends AbstractCheckpointAlgorithm {
+
+	private final static Logger logger = Logger.getLogger(AdaptiveCheckpointAlgorithm.class.getName());
+
+	@Inject
+	@BatchProperty(name="target.millis")
+	String targetMillisString;
+
+	@Inject
+	@BatchProperty(name="initial.item.count")
+	String initialItemCountString;
+
+	@Inject
+	@BatchProperty(name="min.item.count")
+	String minItemCountString;
+
+	@Inject
+	@BatchProperty(name="max.item.count")
+	String maxItemCountString;
+
+	@Inject
+	@BatchProperty(name="smoothing")
+	String smoothingString;
+
+	private boolean init = false;
+	private long targetNanos;
+	private int minItemCount;
+	private int maxItemCount;
+	private double smoothing;
+
+	private int itemCount;
+	private int items;
+	private long chunkStart;
+	private double averageItemNanos = -1;
+
+	@Override
+	public void beginCheckpoint() throws Exception {
+		if (!init) {
+			targetNanos = parseLong(targetMillisString, 1000) * 1000000L;
+			itemCount = (int) parseLong(initialItemCountString, 10);
+			minItemCount = (int) parseLong(minItemCountString, 1);
+			maxItemCount = (int) parseLong(maxItemCountString, 100000);
+			smoothing = smoothingString == null || smoothingString.isEmpty() ? 0.25 : Double.parseDouble(smoothingString);
+			init = true;
+		}
+		items = 0;
+		chunkStart = System.nanoTime();
+	}
+
+	@Override
+	public boolean isReadyToCheckpoint() throws Exception {
+		return ++items >= itemCount;
+	}
+
+	@Override
+	public void endCheckpoint() throws Exception {
+		long chunkNanos = System.nanoTime() - chunkStart;
+		if (items == 0) {
+			return;
+		}
+		double itemNanos = (double) chunkNanos / items;
+		if (averageItemNanos < 0) {
+			averageItemNanos = itemNanos;
+		} else {
+			averageItemNanos += smoothing * (itemNanos - averageItemNanos);
+		}
+		// The per chunk cost is spread over fewer items in a smaller chunk, so this settles where the chunk time is the target
+		long next = (long) (targetNanos / Math.max(averageItemNanos, 1));
+		itemCount = (int) Math.max(minItemCount, Math.min(maxItemCount, next));
+		if (logger.isLoggable(Level.FINER)) {
+			logger.finer(items + " items in " + chunkNanos / 1000 + " usec, next chunk " + itemCount + " items");
+		}
+	}
+
+	private static long parseLong(String s, long defaultValue) {
+		return s == null || s.isEmpty() ? defaultValue : Long.parseLong(s);
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.listener.AbstractItemProcessListener;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Item process listener for bench_listener_overhead that does nothing, or allocates (see ListenerHook), in beforeProcess() and afterProcess().
+ */
+@Named
+public class BenchItemProcessListener extends AbstractItemProcessListener {
+
+	@Inject
+	@BatchProperty(name="allocate")
+	String allocateString;
+
+	private ListenerHook hook = null;
+
+	@Override
+	public void beforeProcess(Object item) {
+		hook();
+	}
+
+	@Override
+	public void afterProcess(Object item, Object result) {
+		hook();
+	}
+
+	private void hook() {
+		if (hook == null) {
+			hook = new ListenerHook(allocateString);
+		}
+		hook.call();
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.listener.AbstractItemReadListener;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Item read listener for bench_listener_overhead that does nothing, or allocates (see ListenerHook), in beforeRead() and afterRead().
+ */
+@Named
+public class BenchItemReadListener extends AbstractItemReadListener {
+
+	@Inject
+	@BatchProperty(name="allocate")
+	String allocateString;
+
+	private ListenerHook hook = null;
+
+	@Override
+	public void beforeRead() {
+		hook();
+	}
+
+	@Override
+	public void afterRead(Object item) {
+		hook();
+	}
+
+	private void hook() {
+		if (hook == null) {
+			hook = new ListenerHook(allocateString);
+		}
+		hook.call();
+	}
+}
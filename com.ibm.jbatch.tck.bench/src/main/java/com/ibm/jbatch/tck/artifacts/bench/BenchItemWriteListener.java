@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.util.List;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.listener.AbstractItemWriteListener;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Item write listener for bench_listener_overhead that does nothing, or allocates (see ListenerHook), in beforeWrite() and afterWrite().
+ */
+@Named
+public class BenchItemWriteListener extends AbstractItemWriteListener {
+
+	@Inject
+	@BatchProperty(name="allocate")
+	String allocateString;
+
+	private ListenerHook hook = null;
+
+	@Override
+	public void beforeWrite(List<Object> items) {
+		hook();
+	}
+
+	@Override
+	public void afterWrite(List<Object> items) {
+		hook();
+	}
+
+	private void hook() {
+		if (hook == null) {
+			hook = new ListenerHook(allocateString);
+		}
+		hook.call();
+	}
+}
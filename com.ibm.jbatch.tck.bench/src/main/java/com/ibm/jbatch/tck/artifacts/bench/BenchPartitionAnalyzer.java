@@ -0,0 +1,60 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.batch.api.partition.AbstractPartitionAnalyzer;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Measures how long each BenchPartitionCollector message took to arrive, and keeps the latest
+ * timing from each partition, storing a PartitionScalingStats as the step's persistent user data 
+ * as each partition ends.
+ */
+@Named
+public class BenchPartitionAnalyzer extends AbstractPartitionAnalyzer {
+
+	@Inject
+	StepContext stepCtx;
+
+	private final Map<String, PartitionTiming> latestTimings = new HashMap<String, PartitionTiming>();
+	private int collectorMessages = 0;
+	private long totalCollectorNanos = 0;
+	private long maxCollectorNanos = 0;
+
+	@Override
+	public void analyzeCollectorData(Serializable data) throws Exception {
+		long received = System.nanoTime();
+		PartitionTiming timing = (PartitionTiming) data;
+		long latency = received - timing.getSentNanos();
+		collectorMessages++;
+		totalCollectorNanos += latency;
+		maxCollectorNanos = Math.max(maxCollectorNanos, latency);
+		latestTimings.put(timing.getPartitionId(), timing);
+	}
+
+	@Override
+	public void analyzeStatus(BatchStatus batchStatus, String exitStatus) throws Exception {
+		stepCtx.setPersistentUserData(new PartitionScalingStats(latestTimings.values(), collectorMessages, totalCollectorNanos, maxCollectorNanos));
+	}
+}
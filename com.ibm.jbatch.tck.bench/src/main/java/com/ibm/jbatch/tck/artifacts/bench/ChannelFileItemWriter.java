@@ -0,0 +1,123 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.logging.Logger;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractItemWriter;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Writes each item (a ByteBuffer, e.g. from MappedFileItemReader, or a byte[]) as a line of "output.file", 
+ * through a direct buffer of "buffer.size" bytes (default 64KB) flushed to the file channel at the end of 
+ * every chunk.  With "sync" = "true" it also forces the chunk to disk before the checkpoint.
+ *
+ * Checkpoints the file size after the chunk.  On restart the file is truncated back to the checkpoint, 
+ * dropping anything written by chunks that were rolled back.
+ */
+@Named
+public class ChannelFileItemWriter extends AbstractItemWriter {
+
+	private final static Logger logger = Logger.getLogger(ChannelFileItemWriter.class.getName());
+
+	private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	@Inject
+	@BatchProperty(name="output.file")
+	String outputFile;
+
+	@Inject
+	@BatchProperty(name="buffer.size")
+	String bufferSizeString;
+
+	@Inject
+	@BatchProperty(name="sync")
+	String syncString;
+
+	@Inject
+	StepContext stepCtx;
+
+	private RandomAccessFile file;
+	private FileChannel channel;
+	private ByteBuffer buffer;
+	private boolean sync;
+
+	@Override
+	public void open(Serializable checkpoint) throws Exception {
+		int bufferSize = bufferSizeString == null || bufferSizeString.isEmpty() ? DEFAULT_BUFFER_SIZE : Integer.parseInt(bufferSizeString);
+		sync = "true".equals(syncString);
+		buffer = ByteBuffer.allocateDirect(bufferSize);
+		file = new RandomAccessFile(outputFile, "rw");
+		channel = file.getChannel();
+		long position = checkpoint != null ? (Long) checkpoint : 0;
+		channel.truncate(position);
+		channel.position(position);
+		logger.fine("Writing " + outputFile + " from " + position);
+	}
+
+	@Override
+	public void writeItems(List<Object> items) throws Exception {
+		for (Object item : items) {
+			ByteBuffer line = item instanceof byte[] ? ByteBuffer.wrap((byte[]) item) : ((ByteBuffer) item).duplicate();
+			if (line.remaining() + 1 > buffer.remaining()) {
+				flush();
+			}
+			if (line.remaining() + 1 > buffer.capacity()) {
+				// Too big to buffer, so straight to the channel
+				while (line.hasRemaining()) {
+					channel.write(line);
+				}
+			} else {
+				buffer.put(line);
+			}
+			buffer.put((byte) '\n');
+		}
+		flush();
+		if (sync) {
+			channel.force(false);
+		}
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	@Override
+	public Serializable checkpointInfo() throws Exception {
+		return CheckpointMetrics.measure(stepCtx, channel.position());
+	}
+
+	@Override
+	public void close() throws Exception {
+		if (file != null) {
+			file.close();
+		}
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.Serializable;
+
+import javax.batch.api.partition.AbstractPartitionAnalyzer;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Adds up the CheckpointIntervals of all the partitions, storing the total as the step's persistent user data 
+ * as each partition ends.
+ */
+@Named
+public class CheckpointIntervalAnalyzer extends AbstractPartitionAnalyzer {
+
+	@Inject
+	StepContext stepCtx;
+
+	private final CheckpointIntervals total = new CheckpointIntervals();
+
+	@Override
+	public void analyzeCollectorData(Serializable data) throws Exception {
+		if (data != null) {
+			total.add((CheckpointIntervals) data);
+		}
+	}
+
+	@Override
+	public void analyzeStatus(BatchStatus batchStatus, String exitStatus) throws Exception {
+		stepCtx.setPersistentUserData(total);
+	}
+}
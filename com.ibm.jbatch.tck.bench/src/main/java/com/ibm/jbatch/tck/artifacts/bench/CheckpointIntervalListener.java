@@ -0,0 +1,56 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.listener.AbstractChunkListener;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Records each interval from one afterChunk() to the next (the first from the first beforeChunk()) into the 
+ * partition's CheckpointIntervals, against the chunk's time-limit, given again as "time.limit" (in seconds).
+ */
+@Named
+public class CheckpointIntervalListener extends AbstractChunkListener {
+
+	@Inject
+	@BatchProperty(name="time.limit")
+	String timeLimitString;
+
+	@Inject
+	StepContext stepCtx;
+
+	private long timeLimitNanos = -1;
+	private long lastCommit = -1;
+
+	@Override
+	public void beforeChunk() {
+		if (lastCommit < 0) {
+			timeLimitNanos = Long.parseLong(timeLimitString) * 1000000000L;
+			lastCommit = System.nanoTime();
+		}
+	}
+
+	@Override
+	public void afterChunk() {
+		long now = System.nanoTime();
+		CheckpointIntervals.forStep(stepCtx).record(now - lastCommit, timeLimitNanos);
+		lastCommit = now;
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.Serializable;
+
+import javax.batch.runtime.context.StepContext;
+
+/**
+ * The intervals between a time-based chunk step's commits, against its time-limit, recorded by 
+ * CheckpointIntervalListener in the partition's StepContext transient user data, sent on by 
+ * CheckpointIntervalCollector and added up by CheckpointIntervalAnalyzer.
+ */
+public class CheckpointIntervals implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final LatencyHistogram intervals = new LatencyHistogram();
+	private final LatencyHistogram overshoots = new LatencyHistogram();
+	private long earlyCommits = 0;
+
+	public static CheckpointIntervals forStep(StepContext stepCtx) {
+		CheckpointIntervals intervals = (CheckpointIntervals) stepCtx.getTransientUserData();
+		if (intervals == null) {
+			intervals = new CheckpointIntervals();
+			stepCtx.setTransientUserData(intervals);
+		}
+		return intervals;
+	}
+
+	/**
+	 * @return The intervals so far, replaced in the StepContext by an empty one; or null if there were none
+	 */
+	public static CheckpointIntervals takeFromStep(StepContext stepCtx) {
+		CheckpointIntervals intervals = (CheckpointIntervals) stepCtx.getTransientUserData();
+		if (intervals != null) {
+			stepCtx.setTransientUserData(new CheckpointIntervals());
+		}
+		return intervals;
+	}
+
+	void record(long intervalNanos, long timeLimitNanos) {
+		intervals.record(intervalNanos);
+		if (intervalNanos < timeLimitNanos) {
+			// Ended by the item count, or the runtime's timer ran early
+			earlyCommits++;
+		} else {
+			overshoots.record(intervalNanos - timeLimitNanos);
+		}
+	}
+
+	public void add(CheckpointIntervals other) {
+		intervals.add(other.intervals);
+		overshoots.add(other.overshoots);
+		earlyCommits += other.earlyCommits;
+	}
+
+	/**
+	 * @return Nanoseconds from each commit to the next
+	 */
+	public LatencyHistogram getIntervals() {
+		return intervals;
+	}
+
+	/**
+	 * @return Nanoseconds by which each interval of at least the time-limit exceeded it
+	 */
+	public LatencyHistogram getOvershoots() {
+		return overshoots;
+	}
+
+	/**
+	 * @return Intervals shorter than the time-limit
+	 */
+	public long getEarlyCommits() {
+		return earlyCommits;
+	}
+
+	public String toString() {
+		return "intervals: " + intervals + "; overshoots: " + overshoots + "; earlyCommits=" + earlyCommits;
+	}
+}
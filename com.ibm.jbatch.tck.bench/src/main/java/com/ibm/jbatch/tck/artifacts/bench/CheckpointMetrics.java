@@ -0,0 +1,125 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.batch.runtime.context.StepContext;
+
+/**
+ * Measures how big each checkpoint is once serialized, the way the runtime must before writing it to the job 
+ * repository, and how long that takes.
+ *
+ * Readers and writers pass their checkpoint through measure() in checkpointInfo().  That does nothing unless
+ * CheckpointMetricsListener is listening to the step, so it costs next to nothing in the other benchmarks.
+ *
+ * The partitions of a step can share its step execution id, so metrics are kept by step execution id and the 
+ * thread running the partition: the listener's beforeStep() and afterStep(), and the partition's checkpointInfo() 
+ * calls, all run on that thread.
+ */
+public class CheckpointMetrics {
+
+	private static final ConcurrentMap<String, CheckpointMetrics> steps = new ConcurrentHashMap<String, CheckpointMetrics>();
+
+	private int checkpoints = 0;
+	private long totalBytes = 0;
+	private long maxBytes = 0;
+	private long totalNanos = 0;
+	private long maxNanos = 0;
+
+	static void enable(long stepExecutionId) {
+		steps.put(key(stepExecutionId), new CheckpointMetrics());
+	}
+
+	/**
+	 * @return The metrics gathered since enable(), or null if not enabled
+	 */
+	static CheckpointMetrics disable(long stepExecutionId) {
+		return steps.remove(key(stepExecutionId));
+	}
+
+	private static String key(long stepExecutionId) {
+		return stepExecutionId + "/" + Thread.currentThread().getId();
+	}
+
+	/**
+	 * @param stepCtx
+	 * @param checkpoint
+	 * @return checkpoint, unchanged
+	 */
+	public static <T extends Serializable> T measure(StepContext stepCtx, T checkpoint) {
+		// Not even building the key unless some step is listening
+		CheckpointMetrics metrics = steps.isEmpty() ? null : steps.get(key(stepCtx.getStepExecutionId()));
+		if (metrics == null || checkpoint == null) {
+			return checkpoint;
+		}
+		long start = System.nanoTime();
+		CountingOutputStream counter = new CountingOutputStream();
+		try {
+			ObjectOutputStream oos = new ObjectOutputStream(counter);
+			oos.writeObject(checkpoint);
+			oos.close();
+		} catch (IOException e) {
+			throw new IllegalStateException("Couldn't serialize checkpoint: " + checkpoint, e);
+		}
+		metrics.record(counter.count, System.nanoTime() - start);
+		return checkpoint;
+	}
+
+	private synchronized void record(long bytes, long nanos) {
+		checkpoints++;
+		totalBytes += bytes;
+		maxBytes = Math.max(maxBytes, bytes);
+		totalNanos += nanos;
+		maxNanos = Math.max(maxNanos, nanos);
+	}
+
+	public synchronized int getCheckpoints() {
+		return checkpoints;
+	}
+
+	public synchronized long getTotalBytes() {
+		return totalBytes;
+	}
+
+	public synchronized String toString() {
+		if (checkpoints == 0) {
+			return "no checkpoints measured";
+		}
+		return checkpoints + " checkpoints, " + totalBytes + " bytes (average " + (totalBytes / checkpoints) + ", max " + maxBytes 
+				+ "), serialized in average " + (totalNanos / checkpoints) + " nsec (max " + maxNanos + ")";
+	}
+
+	private static class CountingOutputStream extends OutputStream {
+		private long count = 0;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.util.logging.Logger;
+
+import javax.batch.api.listener.AbstractStepListener;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Turns on CheckpointMetrics for the step, and logs what was measured at the end.  On a partitioned step
+ * that is once per partition.
+ */
+@Named
+public class CheckpointMetricsListener extends AbstractStepListener {
+
+	private final static Logger logger = Logger.getLogger(CheckpointMetricsListener.class.getName());
+
+	@Inject
+	private StepContext stepCtx = null;
+
+	@Override
+	public void beforeStep() throws Exception {
+		CheckpointMetrics.enable(stepCtx.getStepExecutionId());
+	}
+
+	@Override
+	public void afterStep() throws Exception {
+		CheckpointMetrics metrics = CheckpointMetrics.disable(stepCtx.getStepExecutionId());
+		logger.info("Step " + stepCtx.getStepName() + " (stepExecutionId = " + stepCtx.getStepExecutionId() + ", thread " 
+				+ Thread.currentThread().getName() + "): " + metrics);
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.ItemProcessor;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Burns "work.units" of CPU per item, timed for BenchPartitionCollector, and passes the item on unchanged.
+ */
+@Named
+public class CpuBoundItemProcessor implements ItemProcessor {
+
+	@Inject
+	@BatchProperty(name="work.units")
+	String workUnitsString;
+
+	@Inject
+	StepContext stepCtx;
+
+	private long workUnits = -1;
+
+	@Override
+	public Object processItem(Object item) throws Exception {
+		if (workUnits < 0) {
+			workUnits = Long.parseLong(workUnitsString);
+		}
+		PartitionTimer timer = PartitionTimer.forStep(stepCtx);
+		long began = timer.begin();
+		CpuWork.burn(workUnits);
+		timer.end(began);
+		return item;
+	}
+}
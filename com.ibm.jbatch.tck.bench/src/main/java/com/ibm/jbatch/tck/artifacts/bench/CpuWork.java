@@ -0,0 +1,40 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+/**
+ * A fixed amount of CPU-bound work, for benchmarks which should be limited by cores rather than I/O.
+ */
+public class CpuWork {
+
+	// Keeps the JIT from discarding the loop.
+	private static volatile long sink;
+
+	/**
+	 * @param units Each unit is a few nanoseconds of arithmetic
+	 */
+	public static void burn(long units) {
+		long x = units + 1;
+		for (long i = 0; i < units; i++) {
+			// xorshift
+			x ^= x << 13;
+			x ^= x >>> 7;
+			x ^= x << 17;
+		}
+		sink = x;
+	}
+}
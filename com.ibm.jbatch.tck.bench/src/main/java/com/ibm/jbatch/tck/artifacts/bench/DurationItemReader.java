@@ -0,0 +1,70 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.Serializable;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractItemReader;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Reads NullItemReader.ITEM for "run.seconds" after open(), burning "work.units" of CPU (see CpuWork) for each, 
+ * so that a time-based chunk step runs for a set time whatever the machine's speed.
+ *
+ * Checkpoints the number of items read so far.
+ */
+@Named
+public class DurationItemReader extends AbstractItemReader {
+
+	@Inject
+	@BatchProperty(name="run.seconds")
+	String runSecondsString;
+
+	@Inject
+	@BatchProperty(name="work.units")
+	String workUnitsString;
+
+	private long endNanos;
+	private long workUnits;
+	private long itemsRead = 0;
+
+	@Override
+	public void open(Serializable checkpoint) {
+		endNanos = System.nanoTime() + Long.parseLong(runSecondsString) * 1000000000L;
+		workUnits = workUnitsString == null || workUnitsString.isEmpty() ? 0 : Long.parseLong(workUnitsString);
+		if (checkpoint != null) {
+			itemsRead = (Long) checkpoint;
+		}
+	}
+
+	@Override
+	public Object readItem() {
+		if (System.nanoTime() >= endNanos) {
+			return null;
+		}
+		CpuWork.burn(workUnits);
+		itemsRead++;
+		return NullItemReader.ITEM;
+	}
+
+	@Override
+	public Serializable checkpointInfo() {
+		return itemsRead;
+	}
+}
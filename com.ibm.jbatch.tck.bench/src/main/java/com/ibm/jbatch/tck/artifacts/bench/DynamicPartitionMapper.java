@@ -0,0 +1,236 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.File;
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.partition.PartitionMapper;
+import javax.batch.api.partition.PartitionPlan;
+import javax.batch.api.partition.PartitionPlanImpl;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.naming.InitialContext;
+import javax.sql.DataSource;
+
+import com.ibm.jbatch.tck.artifacts.chunkartifacts.ConnectionHelper;
+import com.ibm.jbatch.tck.artifacts.chunkartifacts.InventoryGeneratorMapper;
+
+/**
+ * Sizes the partition plan from the input, rather than taking a partition count.  The input is one of
+ * <ul>
+ * <li>"input.inventory" = "true": the generated rows of the inventory table (see InventoryGeneratorMapper), keyed by itemID
+ * <li>"input.file": the file at that path, keyed by byte offset
+ * <li>"input.size": that many items, keyed from 0
+ * </ul>
+ * 
+ * There is one partition per "min.partition.size" keys (default 1000), but no more than "partitions.per.core" 
+ * (default 1) per available processor, nor than "max.partitions" if set.  Each partition gets the contiguous 
+ * range of keys from "first.key" up to but not including "last.key", the ranges differing in size by at most one.
+ * 
+ * The plan is kept as the step's persistent user data, so unless "partitionsOverride" is "true" a restart 
+ * repeats it, even if the input or the processor count has changed since.  So the step's own artifacts 
+ * shouldn't also use the persistent user data.
+ */
+@Named("dynamicPartitionMapper")
+public class DynamicPartitionMapper implements PartitionMapper {
+
+	private final static Logger logger = Logger.getLogger(DynamicPartitionMapper.class.getName());
+
+	@Inject
+	@BatchProperty(name = "input.inventory")
+	String inventoryProp;
+
+	@Inject
+	@BatchProperty(name = "input.file")
+	String fileProp;
+
+	@Inject
+	@BatchProperty(name = "input.size")
+	String sizeProp;
+
+	@Inject
+	@BatchProperty(name = "min.partition.size")
+	String minPartitionSizeProp;
+
+	@Inject
+	@BatchProperty(name = "partitions.per.core")
+	String partitionsPerCoreProp;
+
+	@Inject
+	@BatchProperty(name = "max.partitions")
+	String maxPartitionsProp;
+
+	@Inject
+	@BatchProperty
+	String partitionsOverride;
+
+	@Inject
+	StepContext stepCtx;
+
+	@Override
+	public PartitionPlan mapPartitions() throws Exception {
+		boolean override = "true".equals(partitionsOverride);
+		KeyRangePlan plan;
+		if (reusesPlan(stepCtx, partitionsOverride)) {
+			plan = (KeyRangePlan) stepCtx.getPersistentUserData();
+			logger.info("Restarting with the previous plan: " + plan);
+		} else {
+			plan = computePlan();
+			logger.info("Planned " + plan);
+			stepCtx.setPersistentUserData(plan);
+		}
+
+		Properties[] props = new Properties[plan.partitions];
+		long first = plan.firstKey;
+		long keys = plan.lastKey - plan.firstKey;
+		for (int i = 0; i < plan.partitions; i++) {
+			// Spread the remainder over the first partitions
+			long count = keys / plan.partitions + (i < keys % plan.partitions ? 1 : 0);
+			props[i] = new Properties();
+			props[i].setProperty("partition.index", String.valueOf(i));
+			props[i].setProperty("first.key", String.valueOf(first));
+			props[i].setProperty("last.key", String.valueOf(first + count));
+			first += count;
+		}
+
+		PartitionPlan partitionPlan = new PartitionPlanImpl();
+		partitionPlan.setPartitions(plan.partitions);
+		partitionPlan.setPartitionProperties(props);
+		partitionPlan.setPartitionsOverride(override);
+		return partitionPlan;
+	}
+
+	/**
+	 * Lets the step's other artifacts tell, before the mapper runs (e.g. in PartitionReducer.beginPartitionedStep()), 
+	 * whether it will repeat the plan of the previous execution or make a new one.
+	 * 
+	 * @param stepCtx The partitioned step's context
+	 * @param partitionsOverride The mapper's "partitionsOverride" property
+	 * @return true if the mapper will reuse the plan kept from a previous execution
+	 */
+	public static boolean reusesPlan(StepContext stepCtx, String partitionsOverride) {
+		return !"true".equals(partitionsOverride) && stepCtx.getPersistentUserData() instanceof KeyRangePlan;
+	}
+
+	private KeyRangePlan computePlan() throws Exception {
+		long firstKey = 0;
+		long lastKey;
+		long inputSize;
+		String source;
+		if ("true".equals(inventoryProp)) {
+			long[] range = getInventoryRange();
+			inputSize = range[0];
+			firstKey = range[1];
+			lastKey = range[2];
+			source = "inventory";
+		} else if (fileProp != null && !fileProp.isEmpty()) {
+			File file = new File(fileProp);
+			if (!file.isFile()) {
+				throw new IllegalArgumentException("input.file = " + fileProp + " is not a file");
+			}
+			inputSize = lastKey = file.length();
+			source = fileProp;
+		} else if (sizeProp != null && !sizeProp.isEmpty()) {
+			inputSize = lastKey = Long.parseLong(sizeProp);
+			source = "input.size";
+		} else {
+			throw new IllegalArgumentException("One of input.inventory, input.file or input.size must be set");
+		}
+
+		long minPartitionSize = minPartitionSizeProp == null || minPartitionSizeProp.isEmpty() ? 1000 : Long.parseLong(minPartitionSizeProp);
+		int partitionsPerCore = partitionsPerCoreProp == null || partitionsPerCoreProp.isEmpty() ? 1 : Integer.parseInt(partitionsPerCoreProp);
+		int cores = Runtime.getRuntime().availableProcessors();
+		long partitions = (inputSize + minPartitionSize - 1) / minPartitionSize;
+		partitions = Math.min(partitions, (long) cores * partitionsPerCore);
+		if (maxPartitionsProp != null && !maxPartitionsProp.isEmpty()) {
+			partitions = Math.min(partitions, Integer.parseInt(maxPartitionsProp));
+		}
+		// Even with no input, a step needs a partition to run
+		partitions = Math.max(1, Math.min(partitions, Math.max(1, lastKey - firstKey)));
+		return new KeyRangePlan(source, inputSize, cores, (int) partitions, firstKey, lastKey);
+	}
+
+	/**
+	 * @return The row count, first itemID and last itemID + 1 of the generated inventory
+	 */
+	private long[] getInventoryRange() throws Exception {
+		DataSource dataSource = (DataSource) new InitialContext().lookup(ConnectionHelper.jndiName);
+		Connection connection = null;
+		PreparedStatement statement = null;
+		ResultSet rs = null;
+		try {
+			connection = ConnectionHelper.getConnection(dataSource);
+			statement = connection.prepareStatement(ConnectionHelper.RANGE_GENERATED_INVENTORY);
+			statement.setInt(1, InventoryGeneratorMapper.FIRST_ITEM_ID);
+			rs = statement.executeQuery();
+			rs.next();
+			long rows = rs.getLong("rowcount");
+			if (rows == 0) {
+				return new long[] { 0, InventoryGeneratorMapper.FIRST_ITEM_ID, InventoryGeneratorMapper.FIRST_ITEM_ID };
+			}
+			return new long[] { rows, rs.getLong("minid"), rs.getLong("maxid") + 1 };
+		} finally {
+			ConnectionHelper.cleanupConnection(connection, rs, statement);
+		}
+	}
+
+	/**
+	 * What the mapper decided, kept for restart.
+	 */
+	public static class KeyRangePlan implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String source;
+		private final long inputSize;
+		private final int cores;
+		private final int partitions;
+		private final long firstKey;
+		private final long lastKey;
+
+		KeyRangePlan(String source, long inputSize, int cores, int partitions, long firstKey, long lastKey) {
+			this.source = source;
+			this.inputSize = inputSize;
+			this.cores = cores;
+			this.partitions = partitions;
+			this.firstKey = firstKey;
+			this.lastKey = lastKey;
+		}
+
+		public int getPartitions() {
+			return partitions;
+		}
+
+		public long getInputSize() {
+			return inputSize;
+		}
+
+		public String toString() {
+			long keys = lastKey - firstKey;
+			return partitions + " partitions of " + (keys / partitions) + (keys % partitions == 0 ? "" : " to " + (keys / partitions + 1)) 
+					+ " keys, from " + firstKey + " to " + lastKey + ", for input size " + inputSize + " (" + source + ") on " + cores + " cores";
+		}
+	}
+}
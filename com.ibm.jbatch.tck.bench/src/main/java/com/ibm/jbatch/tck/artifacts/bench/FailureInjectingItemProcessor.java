@@ -0,0 +1,65 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.ItemProcessor;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Passes on the item numbers from FailureInjectingItemReader, failing some as FailureInjector decides.
+ */
+@Named
+public class FailureInjectingItemProcessor implements ItemProcessor {
+
+	@Inject
+	@BatchProperty(name="failure.rate")
+	String rateString;
+
+	@Inject
+	@BatchProperty(name="failure.mode")
+	String modeString;
+
+	@Inject
+	@BatchProperty(name="burst.length")
+	String burstLengthString;
+
+	@Inject
+	@BatchProperty(name="failure.exception")
+	String exceptionString;
+
+	@Inject
+	@BatchProperty(name="seed")
+	String seedString;
+
+	private FailureInjector injector = null;
+
+	@Override
+	public Object processItem(Object item) throws Exception {
+		getInjector().check((Integer) item);
+		return item;
+	}
+
+	private FailureInjector getInjector() {
+		// Kept for the life of the step, not just from open() to close(), so retried items aren't failed again
+		if (injector == null) {
+			injector = new FailureInjector(rateString, modeString, burstLengthString, exceptionString, seedString);
+		}
+		return injector;
+	}
+}
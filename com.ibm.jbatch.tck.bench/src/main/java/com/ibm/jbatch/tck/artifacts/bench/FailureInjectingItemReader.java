@@ -0,0 +1,110 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractItemReader;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Reads the item numbers from 0 to "item.count" - 1, failing some as FailureInjector decides.  A skipped item 
+ * is passed over; a retried one is read again.
+ *
+ * Checkpoints the next item number.  Every call to readItem() is counted in a static counter, so that reads 
+ * replayed after a rollback show up as reads beyond item.count.
+ */
+@Named
+public class FailureInjectingItemReader extends AbstractItemReader {
+
+	private static final AtomicLong reads = new AtomicLong();
+
+	@Inject
+	@BatchProperty(name="item.count")
+	String itemCountString;
+
+	@Inject
+	@BatchProperty(name="failure.rate")
+	String rateString;
+
+	@Inject
+	@BatchProperty(name="failure.mode")
+	String modeString;
+
+	@Inject
+	@BatchProperty(name="burst.length")
+	String burstLengthString;
+
+	@Inject
+	@BatchProperty(name="failure.exception")
+	String exceptionString;
+
+	@Inject
+	@BatchProperty(name="seed")
+	String seedString;
+
+	private FailureInjector injector = null;
+	private int itemCount;
+	private int next = 0;
+
+	@Override
+	public void open(Serializable checkpoint) {
+		itemCount = Integer.parseInt(itemCountString);
+		next = checkpoint != null ? (Integer) checkpoint : 0;
+	}
+
+	@Override
+	public Object readItem() throws Exception {
+		if (next >= itemCount) {
+			return null;
+		}
+		reads.incrementAndGet();
+		int item = next;
+		if (getInjector().willFail(item)) {
+			if (injector.isSkip()) {
+				next++;
+			}
+			injector.check(item);
+		}
+		next++;
+		return item;
+	}
+
+	@Override
+	public Serializable checkpointInfo() {
+		return next;
+	}
+
+	private FailureInjector getInjector() {
+		// Kept for the life of the step, not just from open() to close(), so retried items aren't failed again
+		if (injector == null) {
+			injector = new FailureInjector(rateString, modeString, burstLengthString, exceptionString, seedString);
+		}
+		return injector;
+	}
+
+	public static long getReads() {
+		return reads.get();
+	}
+
+	static void resetCounts() {
+		reads.set(0);
+	}
+}
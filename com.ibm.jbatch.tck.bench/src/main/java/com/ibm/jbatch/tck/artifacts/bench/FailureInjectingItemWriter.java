@@ -0,0 +1,68 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.util.List;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractItemWriter;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Writes nothing, but fails the whole chunk if FailureInjector fails any of the item numbers in it.
+ */
+@Named
+public class FailureInjectingItemWriter extends AbstractItemWriter {
+
+	@Inject
+	@BatchProperty(name="failure.rate")
+	String rateString;
+
+	@Inject
+	@BatchProperty(name="failure.mode")
+	String modeString;
+
+	@Inject
+	@BatchProperty(name="burst.length")
+	String burstLengthString;
+
+	@Inject
+	@BatchProperty(name="failure.exception")
+	String exceptionString;
+
+	@Inject
+	@BatchProperty(name="seed")
+	String seedString;
+
+	private FailureInjector injector = null;
+
+	@Override
+	public void writeItems(List<Object> items) throws Exception {
+		for (Object item : items) {
+			getInjector().check((Integer) item);
+		}
+	}
+
+	private FailureInjector getInjector() {
+		// Kept for the life of the step, not just from open() to close(), so retried items aren't failed again
+		if (injector == null) {
+			injector = new FailureInjector(rateString, modeString, burstLengthString, exceptionString, seedString);
+		}
+		return injector;
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which items the FailureInjecting* artifacts fail, and with what.
+ * 
+ * "failure.rate" percent of the items fail (default 0), chosen by "seed", either each item independently 
+ * ("failure.mode" = "uniform", the default) or in runs of "burst.length" items (default 10) that fail together 
+ * ("burst").  "failure.exception" picks the exception:
+ * <ul>
+ * <li>"skip" (the default): InjectedSkippableException, failing the item every time it's seen
+ * <li>"retry": InjectedRetryableException, so the chunk is rolled back and retried, failing the item only the first time
+ * <li>"retry.norollback": InjectedNoRollbackException, failing the item only the first time
+ * </ul>
+ * 
+ * The choice depends only on the seed and the item number, so every artifact with the same settings fails the 
+ * same items, and so does every run.  The number of failures thrown is counted in a static counter, so only 
+ * sees runtimes in the same JVM, and only makes sense one job at a time.
+ */
+public class FailureInjector {
+
+	private static final AtomicLong failures = new AtomicLong();
+
+	private final double rate;
+	private final boolean burst;
+	private final int burstLength;
+	private final String exception;
+	private final boolean once;
+	private final long seed;
+
+	// Items already failed with a retryable exception
+	private final BitSet failed = new BitSet();
+
+	public FailureInjector(String rateString, String modeString, String burstLengthString, String exceptionString, String seedString) {
+		rate = isSet(rateString) ? Double.parseDouble(rateString) / 100 : 0;
+		burst = "burst".equals(modeString);
+		burstLength = isSet(burstLengthString) ? Integer.parseInt(burstLengthString) : 10;
+		exception = isSet(exceptionString) ? exceptionString : "skip";
+		if (!"skip".equals(exception) && !"retry".equals(exception) && !"retry.norollback".equals(exception)) {
+			throw new IllegalArgumentException("failure.exception = " + exception + ", expected skip, retry or retry.norollback");
+		}
+		once = !"skip".equals(exception);
+		seed = isSet(seedString) ? Long.parseLong(seedString) : 0;
+	}
+
+	private static boolean isSet(String s) {
+		return s != null && !s.isEmpty();
+	}
+
+	/**
+	 * @return Whether item should fail, ignoring whether it already has
+	 */
+	public boolean failsAt(int item) {
+		if (rate <= 0) {
+			return false;
+		}
+		long key = burst ? item / burstLength : item;
+		// Top 53 bits of the hash, as a double from 0 to 1
+		return (HyperLogLog.hash(seed ^ key) >>> 11) * 0x1.0p-53 < rate;
+	}
+
+	/**
+	 * @return Whether the next check() of item will throw
+	 */
+	public boolean willFail(int item) {
+		return failsAt(item) && !(once && failed.get(item));
+	}
+
+	/**
+	 * Throws if item should fail, and (for a retryable exception) hasn't already.
+	 */
+	public void check(int item) throws InjectedFailureException {
+		if (!willFail(item)) {
+			return;
+		}
+		if (once) {
+			failed.set(item);
+		}
+		failures.incrementAndGet();
+		String message = "Injected failure at item " + item;
+		if ("skip".equals(exception)) {
+			throw new InjectedSkippableException(message);
+		} else if ("retry".equals(exception)) {
+			throw new InjectedRetryableException(message);
+		} else {
+			throw new InjectedNoRollbackException(message);
+		}
+	}
+
+	/**
+	 * @return Whether a failing item is dropped, rather than retried
+	 */
+	public boolean isSkip() {
+		return !once;
+	}
+
+	public static long getFailures() {
+		return failures.get();
+	}
+
+	public static void resetCounts() {
+		failures.set(0);
+		FailureInjectingItemReader.resetCounts();
+	}
+}
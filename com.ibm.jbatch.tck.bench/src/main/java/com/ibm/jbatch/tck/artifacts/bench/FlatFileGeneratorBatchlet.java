@@ -0,0 +1,92 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.logging.Logger;
+
+import javax.batch.api.AbstractBatchlet;
+import javax.batch.api.BatchProperty;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Writes "record.count" lines of "record.size" bytes (plus the newline) to "output.file", for 
+ * MappedFileItemReader to read.  Each line starts with its zero-padded line number, so the same 
+ * parameters always give the same file and any line can be checked in the output.
+ */
+@Named
+public class FlatFileGeneratorBatchlet extends AbstractBatchlet {
+
+	private final static Logger logger = Logger.getLogger(FlatFileGeneratorBatchlet.class.getName());
+
+	@Inject
+	@BatchProperty(name="output.file")
+	String outputFile;
+
+	@Inject
+	@BatchProperty(name="record.count")
+	String recordCountString;
+
+	@Inject
+	@BatchProperty(name="record.size")
+	String recordSizeString;
+
+	@Override
+	public String process() throws Exception {
+		long recordCount = Long.parseLong(recordCountString);
+		int recordSize = Integer.parseInt(recordSizeString);
+		byte[] record = new byte[recordSize + 1];
+		for (int i = 0; i < recordSize; i++) {
+			record[i] = (byte) ('a' + i % 26);
+		}
+		record[recordSize] = '\n';
+		int digits = Math.min(recordSize, 12);
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(64 * 1024, record.length));
+		RandomAccessFile file = new RandomAccessFile(outputFile, "rw");
+		try {
+			FileChannel channel = file.getChannel();
+			channel.truncate(0);
+			for (long n = 0; n < recordCount; n++) {
+				long digit = n;
+				for (int i = digits - 1; i >= 0; i--) {
+					record[i] = (byte) ('0' + digit % 10);
+					digit /= 10;
+				}
+				if (buffer.remaining() < record.length) {
+					buffer.flip();
+					while (buffer.hasRemaining()) {
+						channel.write(buffer);
+					}
+					buffer.clear();
+				}
+				buffer.put(record);
+			}
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} finally {
+			file.close();
+		}
+		logger.info("Wrote " + recordCount + " records of " + recordSize + " bytes to " + outputFile);
+		return "COMPLETED";
+	}
+}
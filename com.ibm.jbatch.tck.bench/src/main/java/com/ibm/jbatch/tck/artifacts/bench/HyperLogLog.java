@@ -0,0 +1,118 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.Serializable;
+
+/**
+ * HyperLogLog sketch estimating the number of distinct values added, with 2^precision one-byte registers, 
+ * so a standard error of about 1.04 / sqrt(2^precision).  Sketches of the same precision merge by taking 
+ * the larger of each pair of registers, which doesn't depend on order, so partitions can each keep their 
+ * own and the analyzer can merge them as they arrive.
+ */
+public class HyperLogLog implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final int MIN_PRECISION = 4;
+	public static final int MAX_PRECISION = 16;
+
+	private final byte[] registers;
+
+	public HyperLogLog(int precision) {
+		if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+			throw new IllegalArgumentException("precision = " + precision + ", expected " + MIN_PRECISION + " to " + MAX_PRECISION);
+		}
+		this.registers = new byte[1 << precision];
+	}
+
+	HyperLogLog(byte[] registers) {
+		this.registers = registers;
+	}
+
+	public void add(long value) {
+		long hash = hash(value);
+		int precision = getPrecision();
+		int index = (int) (hash >>> (64 - precision));
+		// The guard bit keeps the rank within 64 - precision + 1
+		int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+		if (rank > registers[index]) {
+			registers[index] = (byte) rank;
+		}
+	}
+
+	public void add(HyperLogLog other) {
+		if (other.registers.length != registers.length) {
+			throw new IllegalArgumentException("Can't merge a sketch of " + other.registers.length + " registers into one of " + registers.length);
+		}
+		for (int i = 0; i < registers.length; i++) {
+			if (other.registers[i] > registers[i]) {
+				registers[i] = other.registers[i];
+			}
+		}
+	}
+
+	public int getPrecision() {
+		return Integer.numberOfTrailingZeros(registers.length);
+	}
+
+	byte getRegister(int index) {
+		return registers[index];
+	}
+
+	int getRegisterCount() {
+		return registers.length;
+	}
+
+	public long estimate() {
+		int m = registers.length;
+		double sum = 0;
+		int zeros = 0;
+		for (byte register : registers) {
+			sum += 1.0 / (1L << register);
+			if (register == 0) {
+				zeros++;
+			}
+		}
+		double alpha;
+		if (m == 16) {
+			alpha = 0.673;
+		} else if (m == 32) {
+			alpha = 0.697;
+		} else if (m == 64) {
+			alpha = 0.709;
+		} else {
+			alpha = 0.7213 / (1 + 1.079 / m);
+		}
+		double estimate = alpha * m * m / sum;
+		if (estimate <= 2.5 * m && zeros > 0) {
+			// Small range correction: linear counting
+			estimate = m * Math.log((double) m / zeros);
+		}
+		return Math.round(estimate);
+	}
+
+	/**
+	 * SplitMix64 finalizer, so that sequential values spread over all the registers.
+	 */
+	public static long hash(long value) {
+		long z = value + 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.Serializable;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractItemReader;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Reads each key from "first.key" up to but not including "last.key", as a Long, for a partition of 
+ * DynamicPartitionMapper's plan.
+ *
+ * Checkpoints the next key to read.
+ */
+@Named
+public class KeyRangeItemReader extends AbstractItemReader {
+
+	@Inject
+	@BatchProperty(name="first.key")
+	String firstKeyString;
+
+	@Inject
+	@BatchProperty(name="last.key")
+	String lastKeyString;
+
+	private long nextKey;
+	private long lastKey;
+
+	@Override
+	public void open(Serializable checkpoint) {
+		nextKey = checkpoint != null ? (Long) checkpoint : Long.parseLong(firstKeyString);
+		lastKey = Long.parseLong(lastKeyString);
+	}
+
+	@Override
+	public Object readItem() {
+		if (nextKey >= lastKey) {
+			return null;
+		}
+		return nextKey++;
+	}
+
+	@Override
+	public Serializable checkpointInfo() {
+		return nextKey;
+	}
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+/**
+ * What the Bench*Listener hooks do when called: nothing, or with "allocate" = "true" allocate a small array, 
+ * kept until the next call so it can't be optimized away.
+ */
+class ListenerHook {
+
+	private static final int ALLOCATION_BYTES = 64;
+
+	private final boolean allocate;
+	private Object garbage = null;
+
+	ListenerHook(String allocateString) {
+		this.allocate = "true".equals(allocateString);
+	}
+
+	void call() {
+		if (allocate) {
+			garbage = new byte[ALLOCATION_BYTES];
+		}
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.logging.Logger;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractItemReader;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Reads the newline-terminated lines of "input.file" through a memory mapping, each as a read-only ByteBuffer 
+ * slice of the mapping (without the newline), so no bytes are copied on the way in.
+ *
+ * With "first.key" and "last.key" (see DynamicPartitionMapper) it reads only the lines starting in that byte range, 
+ * so partitions splitting a file by byte offset between them read every line exactly once.  The file is mapped 
+ * "map.window" bytes (default 64MB) at a time, and no line may be longer than that.
+ *
+ * Checkpoints the byte offset of the next line, so a restart carries on from there directly.
+ */
+@Named
+public class MappedFileItemReader extends AbstractItemReader {
+
+	private final static Logger logger = Logger.getLogger(MappedFileItemReader.class.getName());
+
+	private static final int DEFAULT_WINDOW = 64 * 1024 * 1024;
+
+	@Inject
+	@BatchProperty(name="input.file")
+	String inputFile;
+
+	@Inject
+	@BatchProperty(name="first.key")
+	String firstKeyString;
+
+	@Inject
+	@BatchProperty(name="last.key")
+	String lastKeyString;
+
+	@Inject
+	@BatchProperty(name="map.window")
+	String windowString;
+
+	@Inject
+	StepContext stepCtx;
+
+	private RandomAccessFile file;
+	private FileChannel channel;
+	private long fileSize;
+	private long lastKey;
+	private int window;
+
+	private MappedByteBuffer mapped = null;
+	private long mappedStart = 0;
+	private long mappedEnd = 0;
+
+	private long position;
+
+	@Override
+	public void open(Serializable checkpoint) throws Exception {
+		window = windowString == null || windowString.isEmpty() ? DEFAULT_WINDOW : Integer.parseInt(windowString);
+		file = new RandomAccessFile(inputFile, "r");
+		channel = file.getChannel();
+		fileSize = channel.size();
+		lastKey = lastKeyString == null || lastKeyString.isEmpty() ? fileSize : Math.min(fileSize, Long.parseLong(lastKeyString));
+		if (checkpoint != null) {
+			position = (Long) checkpoint;
+		} else {
+			long firstKey = firstKeyString == null || firstKeyString.isEmpty() ? 0 : Long.parseLong(firstKeyString);
+			// A line starting before firstKey belongs to the previous range
+			position = firstKey == 0 ? 0 : endOfLine(firstKey - 1) + 1;
+		}
+		logger.fine("Reading " + inputFile + " from " + position + " to " + lastKey);
+	}
+
+	@Override
+	public Object readItem() throws Exception {
+		if (position >= lastKey) {
+			return null;
+		}
+		long end = endOfLine(position);
+		ByteBuffer line = mapped.duplicate();
+		line.limit((int) (end - mappedStart));
+		line.position((int) (position - mappedStart));
+		position = end + 1;
+		return line.slice().asReadOnlyBuffer();
+	}
+
+	/**
+	 * Maps whatever window is needed, leaving the line mapped.
+	 * 
+	 * @return Offset of the newline ending the line containing offset, or the file size if the last line has none
+	 */
+	private long endOfLine(long offset) throws IOException {
+		if (mapped == null || offset < mappedStart || offset >= mappedEnd) {
+			map(offset);
+		}
+		while (true) {
+			for (long i = offset; i < mappedEnd; i++) {
+				if (mapped.get((int) (i - mappedStart)) == '\n') {
+					return i;
+				}
+			}
+			if (mappedEnd == fileSize) {
+				return fileSize;
+			}
+			if (mappedStart == offset) {
+				throw new IllegalStateException("Line at offset " + offset + " of " + inputFile + " is longer than map.window = " + window);
+			}
+			// Remap from the start of the line, so the whole line is mapped
+			map(offset);
+		}
+	}
+
+	private void map(long start) throws IOException {
+		mappedStart = start;
+		mappedEnd = Math.min(fileSize, start + window);
+		mapped = channel.map(FileChannel.MapMode.READ_ONLY, mappedStart, mappedEnd - mappedStart);
+	}
+
+	@Override
+	public Serializable checkpointInfo() {
+		return CheckpointMetrics.measure(stepCtx, position);
+	}
+
+	@Override
+	public void close() throws Exception {
+		mapped = null;
+		if (file != null) {
+			file.close();
+		}
+	}
+}
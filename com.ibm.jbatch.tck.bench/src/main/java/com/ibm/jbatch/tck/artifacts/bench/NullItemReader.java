@@ -0,0 +1,66 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.Serializable;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractItemReader;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Reads the same ITEM "item.count" times, so that with NullItemProcessor and NullItemWriter nothing is 
+ * allocated or logged per item, and what a run measures is the runtime's own read/process/write loop, 
+ * transactions and checkpoints.
+ *
+ * Checkpoints the number of items read so far, so it can be restarted.
+ */
+@Named
+public class NullItemReader extends AbstractItemReader {
+
+	public static final Object ITEM = Boolean.TRUE;
+
+	@Inject
+	@BatchProperty(name="item.count")
+	String itemCountString;
+
+	private int itemCount;
+	private int itemsRead = 0;
+
+	@Override
+	public void open(Serializable checkpoint) {
+		itemCount = Integer.parseInt(itemCountString);
+		if (checkpoint != null) {
+			itemsRead = (Integer) checkpoint;
+		}
+	}
+
+	@Override
+	public Object readItem() {
+		if (itemsRead >= itemCount) {
+			return null;
+		}
+		itemsRead++;
+		return ITEM;
+	}
+
+	@Override
+	public Serializable checkpointInfo() {
+		return itemsRead;
+	}
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.Serializable;
+import java.util.List;
+
+import javax.batch.api.chunk.AbstractItemWriter;
+import javax.inject.Named;
+
+/**
+ * Only counts the items; see NullItemReader.
+ */
+@Named
+public class NullItemWriter extends AbstractItemWriter {
+
+	private int itemsWritten = 0;
+
+	@Override
+	public void open(Serializable checkpoint) {
+		if (checkpoint != null) {
+			itemsWritten = (Integer) checkpoint;
+		}
+	}
+
+	@Override
+	public void writeItems(List<Object> items) {
+		itemsWritten += items.size();
+	}
+
+	@Override
+	public Serializable checkpointInfo() {
+		return itemsWritten;
+	}
+}
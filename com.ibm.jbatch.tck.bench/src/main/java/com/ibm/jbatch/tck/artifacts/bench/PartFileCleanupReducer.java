@@ -0,0 +1,74 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.util.logging.Logger;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.partition.AbstractPartitionReducer;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Deletes the part-N.dat files in "output.dir" (see bench_file_etl) whenever DynamicPartitionMapper is about to 
+ * make a new plan: on the first execution, or on a restart with "partitionsOverride" = "true".  Otherwise a plan 
+ * with fewer partitions than the last one would leave the extra parts of the old output behind.
+ * 
+ * On a restart that reuses the plan the files are kept, since each partition's ChannelFileItemWriter carries on 
+ * from its checkpoint.
+ */
+@Named
+public class PartFileCleanupReducer extends AbstractPartitionReducer {
+
+	private final static Logger logger = Logger.getLogger(PartFileCleanupReducer.class.getName());
+
+	@Inject
+	@BatchProperty(name="output.dir")
+	String outputDir;
+
+	@Inject
+	@BatchProperty
+	String partitionsOverride;
+
+	@Inject
+	StepContext stepCtx;
+
+	@Override
+	public void beginPartitionedStep() throws Exception {
+		if (DynamicPartitionMapper.reusesPlan(stepCtx, partitionsOverride)) {
+			return;
+		}
+		File[] parts = new File(outputDir).listFiles(new FilenameFilter() {
+			@Override
+			public boolean accept(File dir, String name) {
+				return name.matches("part-[0-9]+\\.dat");
+			}
+		});
+		if (parts == null) {
+			return;
+		}
+		for (File part : parts) {
+			if (!part.delete()) {
+				throw new IllegalStateException("Couldn't delete " + part + " left by a previous plan");
+			}
+		}
+		logger.fine("Deleted " + parts.length + " part files from " + outputDir);
+	}
+}
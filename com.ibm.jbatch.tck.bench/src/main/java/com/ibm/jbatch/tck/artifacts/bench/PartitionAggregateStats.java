@@ -0,0 +1,101 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.Serializable;
+
+/**
+ * What SummaryPartitionAnalyzer merged, stored as the step's persistent user data, where a benchmark driver 
+ * can get it from the StepExecution.
+ */
+public class PartitionAggregateStats implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int summaries;
+	private final long count;
+	private final long sum;
+	private final long min;
+	private final long max;
+	private final long distinctEstimate;
+	private final long totalTransitNanos;
+	private final long maxTransitNanos;
+	private final long totalMergeNanos;
+
+	PartitionAggregateStats(SummaryAccumulator accumulator, long totalTransitNanos, long maxTransitNanos, long totalMergeNanos) {
+		this.summaries = accumulator.getSummaries();
+		this.count = accumulator.getCount();
+		this.sum = accumulator.getSum();
+		this.min = accumulator.getMin();
+		this.max = accumulator.getMax();
+		this.distinctEstimate = accumulator.getDistinctEstimate();
+		this.totalTransitNanos = totalTransitNanos;
+		this.maxTransitNanos = maxTransitNanos;
+		this.totalMergeNanos = totalMergeNanos;
+	}
+
+	/**
+	 * @return Number of non-null collector messages merged
+	 */
+	public int getSummaries() {
+		return summaries;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getSum() {
+		return sum;
+	}
+
+	public long getMin() {
+		return min;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	public long getDistinctEstimate() {
+		return distinctEstimate;
+	}
+
+	/**
+	 * @return Average time from a collector returning its summary to the analyzer receiving it
+	 */
+	public double getAverageTransitNanos() {
+		return summaries == 0 ? 0 : (double) totalTransitNanos / summaries;
+	}
+
+	public long getMaxTransitNanos() {
+		return maxTransitNanos;
+	}
+
+	/**
+	 * @return Average time the analyzer took to merge one summary
+	 */
+	public double getAverageMergeNanos() {
+		return summaries == 0 ? 0 : (double) totalMergeNanos / summaries;
+	}
+
+	public String toString() {
+		return "summaries=" + summaries + ", count=" + count + ", sum=" + sum + ", min=" + min + ", max=" + max
+				+ ", distinctEstimate=" + distinctEstimate + ", averageTransitNanos=" + getAverageTransitNanos()
+				+ ", maxTransitNanos=" + maxTransitNanos + ", averageMergeNanos=" + getAverageMergeNanos();
+	}
+}
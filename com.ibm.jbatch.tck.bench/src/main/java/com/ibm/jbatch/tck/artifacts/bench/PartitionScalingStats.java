@@ -0,0 +1,126 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.Serializable;
+import java.util.Collection;
+
+/**
+ * Summary of a partitioned step, built by BenchPartitionAnalyzer and stored as the step's
+ * persistent user data, where a benchmark driver can get it from the StepExecution.
+ */
+public class PartitionScalingStats implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private int partitions = 0;
+	private long minBusyNanos = Long.MAX_VALUE;
+	private long maxBusyNanos = 0;
+	private long totalBusyNanos = 0;
+	private long firstStartNanos = Long.MAX_VALUE;
+	private long lastStartNanos = Long.MIN_VALUE;
+	private long lastEndNanos = Long.MIN_VALUE;
+	private int collectorMessages = 0;
+	private long totalCollectorNanos = 0;
+	private long maxCollectorNanos = 0;
+
+	/**
+	 * @param latestTimings The latest PartitionTiming from each partition
+	 * @param collectorMessages How many collector messages the analyzer received
+	 * @param totalCollectorNanos Sum over those messages of the time from collector to analyzer
+	 * @param maxCollectorNanos
+	 */
+	PartitionScalingStats(Collection<PartitionTiming> latestTimings, int collectorMessages, long totalCollectorNanos, long maxCollectorNanos) {
+		for (PartitionTiming timing : latestTimings) {
+			partitions++;
+			minBusyNanos = Math.min(minBusyNanos, timing.getBusyNanos());
+			maxBusyNanos = Math.max(maxBusyNanos, timing.getBusyNanos());
+			totalBusyNanos += timing.getBusyNanos();
+			if (timing.getStartNanos() >= 0) {
+				firstStartNanos = Math.min(firstStartNanos, timing.getStartNanos());
+				lastStartNanos = Math.max(lastStartNanos, timing.getStartNanos());
+				lastEndNanos = Math.max(lastEndNanos, timing.getEndNanos());
+			}
+		}
+		this.collectorMessages = collectorMessages;
+		this.totalCollectorNanos = totalCollectorNanos;
+		this.maxCollectorNanos = maxCollectorNanos;
+	}
+
+	/**
+	 * @return Number of partitions the analyzer heard from
+	 */
+	public int getPartitions() {
+		return partitions;
+	}
+
+	public long getMinBusyNanos() {
+		return partitions == 0 ? 0 : minBusyNanos;
+	}
+
+	public long getMaxBusyNanos() {
+		return maxBusyNanos;
+	}
+
+	public double getAverageBusyNanos() {
+		return partitions == 0 ? 0 : (double) totalBusyNanos / partitions;
+	}
+
+	/**
+	 * @return Slowest partition's busy time over the average, so 1.0 for perfectly even partitions
+	 */
+	public double getBusySkew() {
+		double average = getAverageBusyNanos();
+		return average == 0 ? 0 : maxBusyNanos / average;
+	}
+
+	/**
+	 * @return Time from the first partition starting work to the last one starting, i.e. how 
+	 * long dispatching the partitions took (when there are at least as many threads as partitions)
+	 */
+	public long getStartSpreadNanos() {
+		return firstStartNanos == Long.MAX_VALUE ? 0 : lastStartNanos - firstStartNanos;
+	}
+
+	/**
+	 * @return Time from the first partition starting work to the last one finishing
+	 */
+	public long getWorkSpanNanos() {
+		return firstStartNanos == Long.MAX_VALUE ? 0 : lastEndNanos - firstStartNanos;
+	}
+
+	public int getCollectorMessages() {
+		return collectorMessages;
+	}
+
+	/**
+	 * @return Average time from a collector returning its data to the analyzer receiving it
+	 */
+	public double getAverageCollectorNanos() {
+		return collectorMessages == 0 ? 0 : (double) totalCollectorNanos / collectorMessages;
+	}
+
+	public long getMaxCollectorNanos() {
+		return maxCollectorNanos;
+	}
+
+	public String toString() {
+		return "partitions=" + partitions + ", busySkew=" + getBusySkew() + ", startSpreadNanos=" + getStartSpreadNanos()
+				+ ", workSpanNanos=" + getWorkSpanNanos() + ", collectorMessages=" + collectorMessages 
+				+ ", averageCollectorNanos=" + getAverageCollectorNanos() + ", maxCollectorNanos=" + maxCollectorNanos;
+	}
+}
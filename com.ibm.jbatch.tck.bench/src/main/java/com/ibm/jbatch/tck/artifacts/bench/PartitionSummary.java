@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.Serializable;
+
+import javax.batch.runtime.context.StepContext;
+
+/**
+ * Count, sum, min, max and distinct-value sketch of the values a partition wrote since its collector last 
+ * ran, kept in the partition's StepContext transient user data by SummarizingItemWriter and sent to 
+ * SummaryPartitionAnalyzer by SummaryPartitionCollector.
+ */
+public class PartitionSummary implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String partitionId;
+	private long count = 0;
+	private long sum = 0;
+	private long min = Long.MAX_VALUE;
+	private long max = Long.MIN_VALUE;
+	private final HyperLogLog distinct;
+	private long sentNanos = -1;
+
+	PartitionSummary(String partitionId, int precision) {
+		this.partitionId = partitionId;
+		this.distinct = new HyperLogLog(precision);
+	}
+
+	public static PartitionSummary forStep(StepContext stepCtx, String partitionId, int precision) {
+		PartitionSummary summary = (PartitionSummary) stepCtx.getTransientUserData();
+		if (summary == null) {
+			summary = new PartitionSummary(partitionId, precision);
+			stepCtx.setTransientUserData(summary);
+		}
+		return summary;
+	}
+
+	/**
+	 * @return The summary so far, replaced in the StepContext by an empty one; or null if there was none
+	 */
+	public static PartitionSummary takeFromStep(StepContext stepCtx) {
+		PartitionSummary summary = (PartitionSummary) stepCtx.getTransientUserData();
+		if (summary != null) {
+			summary.sentNanos = System.nanoTime();
+			stepCtx.setTransientUserData(new PartitionSummary(summary.partitionId, summary.distinct.getPrecision()));
+		}
+		return summary;
+	}
+
+	public void add(long value) {
+		count++;
+		sum += value;
+		min = Math.min(min, value);
+		max = Math.max(max, value);
+		distinct.add(value);
+	}
+
+	public String getPartitionId() {
+		return partitionId;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getSum() {
+		return sum;
+	}
+
+	public long getMin() {
+		return min;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	public HyperLogLog getDistinct() {
+		return distinct;
+	}
+
+	/**
+	 * @return System.nanoTime() when the collector took this from the StepContext
+	 */
+	public long getSentNanos() {
+		return sentNanos;
+	}
+}
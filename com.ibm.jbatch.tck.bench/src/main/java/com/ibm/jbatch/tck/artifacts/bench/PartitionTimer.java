@@ -0,0 +1,72 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import javax.batch.runtime.context.StepContext;
+
+/**
+ * Accumulates the time a partition spends doing its (CPU-bound) work, kept in the partition's
+ * StepContext transient user data so BenchPartitionCollector can report it.
+ *
+ * Only ever used from the partition's own thread.
+ */
+public class PartitionTimer {
+
+	private long startNanos = -1;
+	private long endNanos = -1;
+	private long busyNanos = 0;
+
+	public static PartitionTimer forStep(StepContext stepCtx) {
+		PartitionTimer timer = (PartitionTimer) stepCtx.getTransientUserData();
+		if (timer == null) {
+			timer = new PartitionTimer();
+			stepCtx.setTransientUserData(timer);
+		}
+		return timer;
+	}
+
+	/**
+	 * @return The value to pass to end()
+	 */
+	public long begin() {
+		long now = System.nanoTime();
+		if (startNanos < 0) {
+			startNanos = now;
+		}
+		return now;
+	}
+
+	public void end(long began) {
+		endNanos = System.nanoTime();
+		busyNanos += endNanos - began;
+	}
+
+	/**
+	 * @return System.nanoTime() at the first call to begin(), or -1 if none yet
+	 */
+	public long getStartNanos() {
+		return startNanos;
+	}
+
+	public long getEndNanos() {
+		return endNanos;
+	}
+
+	public long getBusyNanos() {
+		return busyNanos;
+	}
+}
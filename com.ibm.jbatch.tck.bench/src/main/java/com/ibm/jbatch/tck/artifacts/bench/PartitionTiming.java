@@ -0,0 +1,71 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.Serializable;
+
+/**
+ * What BenchPartitionCollector sends BenchPartitionAnalyzer.  All times are System.nanoTime(),
+ * so only comparable when the partitions run in the same JVM as the analyzer.
+ */
+public class PartitionTiming implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String partitionId;
+	private final long startNanos;
+	private final long endNanos;
+	private final long busyNanos;
+	private final long sentNanos;
+
+	public PartitionTiming(String partitionId, PartitionTimer timer) {
+		this.partitionId = partitionId;
+		this.startNanos = timer.getStartNanos();
+		this.endNanos = timer.getEndNanos();
+		this.busyNanos = timer.getBusyNanos();
+		this.sentNanos = System.nanoTime();
+	}
+
+	public String getPartitionId() {
+		return partitionId;
+	}
+
+	/**
+	 * @return When the partition started work, or -1 if it hasn't yet
+	 */
+	public long getStartNanos() {
+		return startNanos;
+	}
+
+	public long getEndNanos() {
+		return endNanos;
+	}
+
+	/**
+	 * @return Total time spent working so far
+	 */
+	public long getBusyNanos() {
+		return busyNanos;
+	}
+
+	/**
+	 * @return When the collector returned this
+	 */
+	public long getSentNanos() {
+		return sentNanos;
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.listener.AbstractChunkListener;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * After every chunk, sets the step's persistent user data to a new PersistentUserDataPayload of "pud.bytes" 
+ * bytes, as an application updating its state would.  A runtime persists it with every checkpoint and once more 
+ * at the end of the step, so PersistentUserDataPayload serializations beyond that show any extra work.
+ *
+ * If "fail.after.chunks" is set above 0, fails the step after that many chunks, so it can be restarted and
+ * the persistent user data hydrated.
+ */
+@Named
+public class PersistentUserDataChunkListener extends AbstractChunkListener {
+
+	@Inject
+	@BatchProperty(name = "pud.bytes")
+	String pudBytesString;
+
+	@Inject
+	@BatchProperty(name = "fail.after.chunks")
+	String failAfterChunksString;
+
+	@Inject
+	StepContext stepCtx;
+
+	private int pudBytes = -1;
+	private int failAfterChunks = 0;
+	private int chunks = 0;
+
+	@Override
+	public void afterChunk() throws Exception {
+		if (pudBytes < 0) {
+			pudBytes = Integer.parseInt(pudBytesString);
+			if (failAfterChunksString != null && !failAfterChunksString.isEmpty()) {
+				failAfterChunks = Integer.parseInt(failAfterChunksString);
+			}
+		}
+		stepCtx.setPersistentUserData(new PersistentUserDataPayload(pudBytes));
+		chunks++;
+		if (failAfterChunks > 0 && chunks >= failAfterChunks) {
+			throw new Exception("Failing on purpose after " + chunks + " chunks");
+		}
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistent user data of a given size that counts, and times, every time the runtime serializes or 
+ * deserializes it, for PersistentUserDataChunkListener.
+ *
+ * The counts are static, so only see runtimes in the same JVM, and only make sense one job at a time.
+ */
+public class PersistentUserDataPayload implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final AtomicLong serializations = new AtomicLong();
+	private static final AtomicLong serializedBytes = new AtomicLong();
+	private static final AtomicLong serializationNanos = new AtomicLong();
+	private static final AtomicLong deserializations = new AtomicLong();
+	private static final AtomicLong deserializationNanos = new AtomicLong();
+
+	private transient byte[] data;
+
+	public PersistentUserDataPayload(int size) {
+		data = new byte[size];
+	}
+
+	public int getSize() {
+		return data.length;
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		long start = System.nanoTime();
+		out.defaultWriteObject();
+		out.writeInt(data.length);
+		out.write(data);
+		serializationNanos.addAndGet(System.nanoTime() - start);
+		serializedBytes.addAndGet(data.length);
+		serializations.incrementAndGet();
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		long start = System.nanoTime();
+		in.defaultReadObject();
+		data = new byte[in.readInt()];
+		in.readFully(data);
+		deserializationNanos.addAndGet(System.nanoTime() - start);
+		deserializations.incrementAndGet();
+	}
+
+	public static void resetCounts() {
+		serializations.set(0);
+		serializedBytes.set(0);
+		serializationNanos.set(0);
+		deserializations.set(0);
+		deserializationNanos.set(0);
+	}
+
+	public static long getSerializations() {
+		return serializations.get();
+	}
+
+	/**
+	 * @return Payload bytes serialized, not counting the stream's own overhead
+	 */
+	public static long getSerializedBytes() {
+		return serializedBytes.get();
+	}
+
+	public static long getSerializationNanos() {
+		return serializationNanos.get();
+	}
+
+	public static long getDeserializations() {
+		return deserializations.get();
+	}
+
+	public static long getDeserializationNanos() {
+		return deserializationNanos.get();
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One LatencyHistogram per phase ("read", "process", "chunk", ...), in the order the phases were first seen.
+ */
+public class PhaseTimings implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Map<String, LatencyHistogram> phases = new LinkedHashMap<String, LatencyHistogram>();
+
+	public void record(String phase, long nanos) {
+		LatencyHistogram histogram = phases.get(phase);
+		if (histogram == null) {
+			histogram = new LatencyHistogram();
+			phases.put(phase, histogram);
+		}
+		histogram.record(nanos);
+	}
+
+	public void add(PhaseTimings other) {
+		for (Map.Entry<String, LatencyHistogram> entry : other.phases.entrySet()) {
+			LatencyHistogram histogram = phases.get(entry.getKey());
+			if (histogram == null) {
+				histogram = new LatencyHistogram();
+				phases.put(entry.getKey(), histogram);
+			}
+			histogram.add(entry.getValue());
+		}
+	}
+
+	/**
+	 * @param phase
+	 * @return The histogram for the phase, or null if nothing was recorded for it
+	 */
+	public LatencyHistogram getPhase(String phase) {
+		return phases.get(phase);
+	}
+
+	public Map<String, LatencyHistogram> getPhases() {
+		return phases;
+	}
+
+	public String toString() {
+		StringBuilder buf = new StringBuilder();
+		for (Map.Entry<String, LatencyHistogram> entry : phases.entrySet()) {
+			if (buf.length() > 0) {
+				buf.append("; ");
+			}
+			buf.append(entry.getKey()).append(": ").append(entry.getValue());
+		}
+		return buf.toString();
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.Serializable;
+import java.util.List;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractItemWriter;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Writes nothing, but for each item adds a pseudo-random value from 0 to "distinct.values" - 1 to the 
+ * partition's PartitionSummary, whose sketch has "hll.precision" (and so the collector payload 2^hll.precision 
+ * bytes of registers).
+ */
+@Named
+public class SummarizingItemWriter extends AbstractItemWriter {
+
+	@Inject
+	@BatchProperty(name="partition.id")
+	String partitionId;
+
+	@Inject
+	@BatchProperty(name="distinct.values")
+	String distinctValuesString;
+
+	@Inject
+	@BatchProperty(name="hll.precision")
+	String precisionString;
+
+	@Inject
+	StepContext stepCtx;
+
+	private long distinctValues;
+	private int precision;
+	private long seed;
+	private long itemsWritten = 0;
+
+	@Override
+	public void open(Serializable checkpoint) throws Exception {
+		distinctValues = Long.parseLong(distinctValuesString);
+		precision = Integer.parseInt(precisionString);
+		seed = (long) partitionId.hashCode() << 32;
+	}
+
+	@Override
+	public void writeItems(List<Object> items) throws Exception {
+		PartitionSummary summary = PartitionSummary.forStep(stepCtx, partitionId, precision);
+		for (int i = 0; i < items.size(); i++) {
+			summary.add((HyperLogLog.hash(seed + itemsWritten++) >>> 1) % distinctValues);
+		}
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Merges PartitionSummary data without locking.  Every merge is commutative (add, min, max, and the register-wise 
+ * max of the sketches), so the result is the same whatever order the summaries arrive in, and summaries may be 
+ * added from any number of threads at once; each field is updated with compare-and-set and never blocks.
+ */
+public class SummaryAccumulator {
+
+	private final AtomicInteger summaries = new AtomicInteger();
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+	private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+	private final AtomicIntegerArray registers;
+
+	public SummaryAccumulator(int precision) {
+		registers = new AtomicIntegerArray(1 << precision);
+	}
+
+	public void add(PartitionSummary summary) {
+		summaries.incrementAndGet();
+		if (summary.getCount() == 0) {
+			return;
+		}
+		count.addAndGet(summary.getCount());
+		sum.addAndGet(summary.getSum());
+		lowerTo(min, summary.getMin());
+		raiseTo(max, summary.getMax());
+		HyperLogLog sketch = summary.getDistinct();
+		if (sketch.getRegisterCount() != registers.length()) {
+			throw new IllegalArgumentException("Can't merge a sketch of " + sketch.getRegisterCount() + " registers into one of " + registers.length());
+		}
+		for (int i = 0; i < registers.length(); i++) {
+			int register = sketch.getRegister(i);
+			int current;
+			while (register > (current = registers.get(i)) && !registers.compareAndSet(i, current, register)) {
+				// Another thread raised it first, so look again
+			}
+		}
+	}
+
+	private static void lowerTo(AtomicLong target, long value) {
+		long current;
+		while (value < (current = target.get()) && !target.compareAndSet(current, value)) {
+			// Another thread moved it first, so look again
+		}
+	}
+
+	private static void raiseTo(AtomicLong target, long value) {
+		long current;
+		while (value > (current = target.get()) && !target.compareAndSet(current, value)) {
+			// Another thread moved it first, so look again
+		}
+	}
+
+	/**
+	 * @return How many summaries have been added, including empty ones
+	 */
+	public int getSummaries() {
+		return summaries.get();
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	public long getSum() {
+		return sum.get();
+	}
+
+	public long getMin() {
+		return min.get();
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	public long getDistinctEstimate() {
+		byte[] snapshot = new byte[registers.length()];
+		for (int i = 0; i < snapshot.length; i++) {
+			snapshot[i] = (byte) registers.get(i);
+		}
+		return new HyperLogLog(snapshot).estimate();
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.Serializable;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.partition.AbstractPartitionAnalyzer;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Merges each PartitionSummary from SummaryPartitionCollector into a SummaryAccumulator as it arrives, timing 
+ * both the trip from the collector and the merge, and stores a PartitionAggregateStats as the step's persistent 
+ * user data as each partition ends.
+ */
+@Named
+public class SummaryPartitionAnalyzer extends AbstractPartitionAnalyzer {
+
+	@Inject
+	@BatchProperty(name="hll.precision")
+	String precisionString;
+
+	@Inject
+	StepContext stepCtx;
+
+	private SummaryAccumulator accumulator = null;
+	private long totalTransitNanos = 0;
+	private long maxTransitNanos = 0;
+	private long totalMergeNanos = 0;
+
+	@Override
+	public void analyzeCollectorData(Serializable data) throws Exception {
+		long received = System.nanoTime();
+		if (data == null) {
+			return;
+		}
+		PartitionSummary summary = (PartitionSummary) data;
+		long transit = received - summary.getSentNanos();
+		totalTransitNanos += transit;
+		maxTransitNanos = Math.max(maxTransitNanos, transit);
+		getAccumulator().add(summary);
+		totalMergeNanos += System.nanoTime() - received;
+	}
+
+	@Override
+	public void analyzeStatus(BatchStatus batchStatus, String exitStatus) throws Exception {
+		stepCtx.setPersistentUserData(new PartitionAggregateStats(getAccumulator(), totalTransitNanos, maxTransitNanos, totalMergeNanos));
+	}
+
+	private SummaryAccumulator getAccumulator() {
+		if (accumulator == null) {
+			accumulator = new SummaryAccumulator(Integer.parseInt(precisionString));
+		}
+		return accumulator;
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.Serializable;
+
+import javax.batch.api.partition.PartitionCollector;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Sends SummaryPartitionAnalyzer the PartitionSummary of what the partition wrote since the last call, 
+ * or null if it wrote nothing.
+ */
+@Named
+public class SummaryPartitionCollector implements PartitionCollector {
+
+	@Inject
+	StepContext stepCtx;
+
+	@Override
+	public Serializable collectPartitionData() throws Exception {
+		return PartitionSummary.takeFromStep(stepCtx);
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.Serializable;
+import java.util.logging.Logger;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractItemReader;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Reads "item.count" items, each a new byte[] of "item.size" bytes, for measuring the
+ * runtime's own per-item and per-chunk overhead rather than that of any real data source.
+ *
+ * Checkpoints the number of items read so far, so it can be restarted.
+ */
+@Named
+public class SyntheticItemReader extends AbstractItemReader {
+
+	private final static Logger logger = Logger.getLogger(SyntheticItemReader.class.getName());
+
+	@Inject
+	@BatchProperty(name="item.count")
+	String itemCountString;
+
+	@Inject
+	@BatchProperty(name="item.size")
+	String itemSizeString;
+
+	@Inject
+	StepContext stepCtx;
+
+	private int itemCount;
+	private int itemSize;
+	private int itemsRead = 0;
+
+	@Override
+	public void open(Serializable checkpoint) {
+		itemCount = Integer.parseInt(itemCountString);
+		itemSize = itemSizeString != null ? Integer.parseInt(itemSizeString) : 0;
+		if (checkpoint != null) {
+			itemsRead = (Integer) checkpoint;
+		}
+		logger.fine("Reading " + itemCount + " items of " + itemSize + " bytes, starting at " + itemsRead);
+	}
+
+	@Override
+	public Object readItem() {
+		if (itemsRead >= itemCount) {
+			return null;
+		}
+		itemsRead++;
+		return new byte[itemSize];
+	}
+
+	@Override
+	public Serializable checkpointInfo() {
+		return CheckpointMetrics.measure(stepCtx, itemsRead);
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.logging.Logger;
+
+import javax.batch.api.chunk.AbstractItemWriter;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Writer for SyntheticItemReader items that only counts them (and their bytes), so 
+ * the cost measured is that of the runtime.
+ */
+@Named
+public class SyntheticItemWriter extends AbstractItemWriter {
+
+	private final static Logger logger = Logger.getLogger(SyntheticItemWriter.class.getName());
+
+	@Inject
+	StepContext stepCtx;
+
+	private long itemsWritten = 0;
+	private long bytesWritten = 0;
+
+	@Override
+	public void open(Serializable checkpoint) {
+		if (checkpoint != null) {
+			itemsWritten = (Long) checkpoint;
+		}
+	}
+
+	@Override
+	public void writeItems(List<Object> items) {
+		for (Object item : items) {
+			bytesWritten += ((byte[]) item).length;
+		}
+		itemsWritten += items.size();
+	}
+
+	@Override
+	public void close() {
+		logger.fine("Wrote " + itemsWritten + " items, " + bytesWritten + " bytes in this execution");
+	}
+
+	@Override
+	public Serializable checkpointInfo() {
+		return CheckpointMetrics.measure(stepCtx, itemsWritten);
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.util.logging.Logger;
+
+import javax.batch.api.listener.AbstractJobListener;
+import javax.batch.runtime.context.JobContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Turns on the ThreadSchedulingProfile for the job, and logs it at the end.  Steps record into it with 
+ * ThreadSchedulingStepListener.
+ */
+@Named
+public class ThreadSchedulingJobListener extends AbstractJobListener {
+
+	private final static Logger logger = Logger.getLogger(ThreadSchedulingJobListener.class.getName());
+
+	@Inject
+	private JobContext jobCtx = null;
+
+	@Override
+	public void beforeJob() throws Exception {
+		ThreadSchedulingProfile.enable(jobCtx.getExecutionId());
+	}
+
+	@Override
+	public void afterJob() throws Exception {
+		ThreadSchedulingProfile profile = ThreadSchedulingProfile.disable(jobCtx.getExecutionId());
+		logger.info("Job " + jobCtx.getJobName() + " (executionId = " + jobCtx.getExecutionId() + ") thread scheduling:\n" + profile);
+	}
+}
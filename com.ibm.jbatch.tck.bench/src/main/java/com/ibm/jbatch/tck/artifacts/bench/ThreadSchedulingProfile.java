@@ -0,0 +1,170 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Where each partition and split flow of a job ran, and when, as recorded by ThreadSchedulingStepListener, for 
+ * ThreadSchedulingJobListener to summarize at the end of the job.
+ *
+ * Samples are grouped: the partitions of a step make up one group, and the flows of a split another (see 
+ * ThreadSchedulingStepListener).  A group starts when the first of its samples starts, so a sample's queue 
+ * wait is how long after that it got to its first read (or, for a batchlet, started at all).
+ *
+ * This relies on partitions and split flows seeing the top-level job's executionId in their JobContext.  A 
+ * runtime that gives them one of their own leaves them out of the profile. 
+ */
+public class ThreadSchedulingProfile {
+
+	private static final ConcurrentMap<Long, ThreadSchedulingProfile> jobs = new ConcurrentHashMap<Long, ThreadSchedulingProfile>();
+
+	private final Map<String, Group> groups = new LinkedHashMap<String, Group>();
+
+	static void enable(long executionId) {
+		jobs.put(executionId, new ThreadSchedulingProfile());
+	}
+
+	/**
+	 * @return The profile gathered since enable(), or null if not enabled
+	 */
+	static ThreadSchedulingProfile disable(long executionId) {
+		return jobs.remove(executionId);
+	}
+
+	/**
+	 * @return The profile to record into, or null if not enabled
+	 */
+	static ThreadSchedulingProfile forJob(long executionId) {
+		return jobs.get(executionId);
+	}
+
+	/**
+	 * @param group
+	 * @param flow If not null, samples with the same flow are added up into one, since a flow runs all its steps on one thread.
+	 * @param threadId
+	 * @param threadName
+	 * @param startNanos beforeStep()
+	 * @param firstReadNanos First beforeRead(), or -1 if there were no reads
+	 * @param endNanos afterStep()
+	 * @param cpuNanos CPU time of the thread from beforeStep() to afterStep(), or -1 if not supported
+	 */
+	synchronized void record(String group, String flow, long threadId, String threadName, long startNanos, long firstReadNanos, long endNanos, long cpuNanos) {
+		Group g = groups.get(group);
+		if (g == null) {
+			g = new Group();
+			groups.put(group, g);
+		}
+		Sample sample = flow == null ? null : g.flows.get(flow);
+		if (sample == null) {
+			sample = new Sample(flow == null ? "#" + g.samples.size() : flow, threadId, threadName, startNanos, firstReadNanos >= 0 ? firstReadNanos : startNanos);
+			g.samples.add(sample);
+			if (flow != null) {
+				g.flows.put(flow, sample);
+			}
+		}
+		sample.endNanos = endNanos;
+		sample.runNanos += endNanos - startNanos;
+		sample.cpuNanos = (cpuNanos < 0 || sample.cpuNanos < 0) ? -1 : sample.cpuNanos + cpuNanos;
+	}
+
+	/**
+	 * All times in msec.  Per group:
+	 * 
+	 *   queue wait   From the start of the group to each sample's first read
+	 *   run          From beforeStep() to afterStep() (summed over the steps of a flow)
+	 *   cpu          CPU time of the thread over the same span
+	 *   start skew   Latest minus earliest first read
+	 *   finish skew  Latest minus earliest afterStep()
+	 *   idle         Threads used times the group's elapsed time, less the total run time: how much of the 
+	 *                threads' time the group left unused
+	 */
+	public synchronized String toString() {
+		StringBuilder buf = new StringBuilder();
+		for (Map.Entry<String, Group> entry : groups.entrySet()) {
+			buf.append(entry.getKey()).append(": ").append(entry.getValue()).append('\n');
+		}
+		return buf.toString();
+	}
+
+	private static class Group {
+		private final List<Sample> samples = new ArrayList<Sample>();
+		private final Map<String, Sample> flows = new LinkedHashMap<String, Sample>();
+
+		public String toString() {
+			long groupStart = Long.MAX_VALUE;
+			long groupEnd = Long.MIN_VALUE;
+			long firstRead = Long.MAX_VALUE;
+			long lastRead = Long.MIN_VALUE;
+			long firstEnd = Long.MAX_VALUE;
+			long totalRun = 0;
+			long maxWait = 0;
+			Set<Long> threads = new HashSet<Long>();
+			for (Sample sample : samples) {
+				groupStart = Math.min(groupStart, sample.startNanos);
+				groupEnd = Math.max(groupEnd, sample.endNanos);
+				firstRead = Math.min(firstRead, sample.firstReadNanos);
+				lastRead = Math.max(lastRead, sample.firstReadNanos);
+				firstEnd = Math.min(firstEnd, sample.endNanos);
+				totalRun += sample.runNanos;
+				threads.add(sample.threadId);
+			}
+			StringBuilder buf = new StringBuilder();
+			for (Sample sample : samples) {
+				long wait = sample.firstReadNanos - groupStart;
+				maxWait = Math.max(maxWait, wait);
+				buf.append("\n  ").append(sample.label).append(" thread=").append(sample.threadId).append(" (").append(sample.threadName)
+						.append(") queue wait=").append(msec(wait)).append(" run=").append(msec(sample.runNanos))
+						.append(" cpu=").append(sample.cpuNanos < 0 ? "n/a" : msec(sample.cpuNanos));
+			}
+			long elapsed = groupEnd - groupStart;
+			return samples.size() + " samples on " + threads.size() + " threads, elapsed=" + msec(elapsed) + " max queue wait=" + msec(maxWait)
+					+ " start skew=" + msec(lastRead - firstRead) + " finish skew=" + msec(groupEnd - firstEnd) 
+					+ " idle=" + msec(threads.size() * elapsed - totalRun) + buf;
+		}
+	}
+
+	private static class Sample {
+		private final String label;
+		private final long threadId;
+		private final String threadName;
+		private final long startNanos;
+		private final long firstReadNanos;
+		private long endNanos;
+		private long runNanos = 0;
+		private long cpuNanos = 0;
+
+		private Sample(String label, long threadId, String threadName, long startNanos, long firstReadNanos) {
+			this.label = label;
+			this.threadId = threadId;
+			this.threadName = threadName;
+			this.startNanos = startNanos;
+			this.firstReadNanos = firstReadNanos;
+		}
+	}
+
+	private static String msec(long nanos) {
+		return (nanos / 1000000) + "." + (nanos % 1000000 / 100000);
+	}
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.listener.AbstractItemReadListener;
+import javax.batch.api.listener.StepListener;
+import javax.batch.runtime.context.JobContext;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Records the thread, queue wait, run time and CPU time of the step (or of each of its partitions) into the 
+ * job's ThreadSchedulingProfile.  Does nothing unless ThreadSchedulingJobListener is listening to the job.
+ *
+ * Samples are grouped by step name, unless the "group" property says otherwise.  For a split, give the steps 
+ * of all its flows the same group, and each step its flow's id as the "flow" property, to get one sample per flow.
+ */
+@Named
+public class ThreadSchedulingStepListener extends AbstractItemReadListener implements StepListener {
+
+	private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+	@Inject
+	private JobContext jobCtx = null;
+
+	@Inject
+	private StepContext stepCtx = null;
+
+	@Inject
+	@BatchProperty(name="group")
+	String group;
+
+	@Inject
+	@BatchProperty(name="flow")
+	String flow;
+
+	private long startNanos;
+	private long firstReadNanos = -1;
+	private long startCpuNanos;
+
+	@Override
+	public void beforeStep() throws Exception {
+		startNanos = System.nanoTime();
+		startCpuNanos = cpuNanos();
+	}
+
+	@Override
+	public void beforeRead() throws Exception {
+		if (firstReadNanos < 0) {
+			firstReadNanos = System.nanoTime();
+		}
+	}
+
+	@Override
+	public void afterStep() throws Exception {
+		long endNanos = System.nanoTime();
+		long endCpuNanos = cpuNanos();
+		ThreadSchedulingProfile profile = ThreadSchedulingProfile.forJob(jobCtx.getExecutionId());
+		if (profile == null) {
+			return;
+		}
+		Thread t = Thread.currentThread();
+		profile.record(group != null ? group : stepCtx.getStepName(), flow, t.getId(), t.getName(), startNanos, firstReadNanos, endNanos, 
+				startCpuNanos < 0 ? -1 : endCpuNanos - startCpuNanos);
+	}
+
+	private static long cpuNanos() {
+		return threadBean.isCurrentThreadCpuTimeSupported() ? threadBean.getCurrentThreadCpuTime() : -1;
+	}
+}
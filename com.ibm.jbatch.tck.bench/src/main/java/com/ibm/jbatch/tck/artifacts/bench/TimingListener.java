@@ -0,0 +1,183 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.listener.ChunkListener;
+import javax.batch.api.chunk.listener.ItemProcessListener;
+import javax.batch.api.chunk.listener.ItemReadListener;
+import javax.batch.api.chunk.listener.ItemWriteListener;
+import javax.batch.api.listener.JobListener;
+import javax.batch.api.listener.StepListener;
+import javax.batch.runtime.context.JobContext;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Times each phase of a job in nanoseconds, so any job can be profiled by adding
+ * 
+ *   &lt;listener ref="timingListener"/&gt;
+ * 
+ * to the job's and/or the steps' listeners.  As a job listener it times the job, as a step listener it times 
+ * the step and, for a chunk step, each read, process, write and chunk.  The phases are:
+ * 
+ *   job      beforeJob() to afterJob()
+ *   step     beforeStep() to afterStep()
+ *   read     beforeRead() to afterRead() or onReadError(), and likewise process and write
+ *   chunk    beforeChunk() to afterChunk() or onError()
+ *   commit   afterWrite() or onWriteError() to afterChunk() or onError(): the checkpointInfo() calls and the
+ *            commit (or, after an error, the rollback) of the chunk's transaction.  Chunks that write nothing
+ *            have no commit time.
+ * 
+ * At the end of the step (or job) the histograms are logged (at FINE) and published to the TimingRegistry MBean under 
+ * "jobName:executionId[:stepName:stepExecutionId]".  With the "publish" property set to "persistentUserData" the 
+ * step's histograms are also set as its PhaseTimings persistent user data; only do that for steps whose artifacts 
+ * don't use the persistent user data themselves.
+ */
+@Named
+public class TimingListener implements JobListener, StepListener, ChunkListener, ItemReadListener, ItemProcessListener,
+		ItemWriteListener {
+
+	private final static Logger logger = Logger.getLogger(TimingListener.class.getName());
+
+	public static final String PUBLISH_PERSISTENT_USER_DATA = "persistentUserData";
+
+	@Inject
+	private JobContext jobCtx = null;
+
+	@Inject
+	private StepContext stepCtx = null;
+
+	@Inject
+	@BatchProperty(name="publish")
+	String publish;
+
+	private final PhaseTimings timings = new PhaseTimings();
+
+	private long jobStart;
+	private long stepStart;
+	private long readStart;
+	private long processStart;
+	private long writeStart;
+	private long chunkStart;
+	private long writeEnd = -1;
+
+	@Override
+	public void beforeJob() throws Exception {
+		jobStart = System.nanoTime();
+	}
+
+	@Override
+	public void afterJob() throws Exception {
+		timings.record("job", System.nanoTime() - jobStart);
+		String key = jobCtx.getJobName() + ":" + jobCtx.getExecutionId();
+		logger.fine(key + ": " + timings);
+		TimingRegistry.getInstance().publish(key, timings);
+	}
+
+	@Override
+	public void beforeStep() throws Exception {
+		stepStart = System.nanoTime();
+	}
+
+	@Override
+	public void afterStep() throws Exception {
+		timings.record("step", System.nanoTime() - stepStart);
+		String key = jobCtx.getJobName() + ":" + jobCtx.getExecutionId() + ":" + stepCtx.getStepName() + ":" + stepCtx.getStepExecutionId();
+		logger.fine(key + ": " + timings);
+		TimingRegistry.getInstance().publish(key, timings);
+		if (PUBLISH_PERSISTENT_USER_DATA.equals(publish)) {
+			stepCtx.setPersistentUserData(timings);
+		}
+	}
+
+	@Override
+	public void beforeChunk() throws Exception {
+		chunkStart = System.nanoTime();
+		writeEnd = -1;
+	}
+
+	@Override
+	public void onError(Exception ex) throws Exception {
+		endChunk();
+	}
+
+	@Override
+	public void afterChunk() throws Exception {
+		endChunk();
+	}
+
+	private void endChunk() {
+		long now = System.nanoTime();
+		if (writeEnd >= 0) {
+			timings.record("commit", now - writeEnd);
+			writeEnd = -1;
+		}
+		timings.record("chunk", now - chunkStart);
+	}
+
+	@Override
+	public void beforeRead() throws Exception {
+		readStart = System.nanoTime();
+	}
+
+	@Override
+	public void afterRead(Object item) throws Exception {
+		timings.record("read", System.nanoTime() - readStart);
+	}
+
+	@Override
+	public void onReadError(Exception ex) throws Exception {
+		timings.record("read", System.nanoTime() - readStart);
+	}
+
+	@Override
+	public void beforeProcess(Object item) throws Exception {
+		processStart = System.nanoTime();
+	}
+
+	@Override
+	public void afterProcess(Object item, Object result) throws Exception {
+		timings.record("process", System.nanoTime() - processStart);
+	}
+
+	@Override
+	public void onProcessError(Object item, Exception ex) throws Exception {
+		timings.record("process", System.nanoTime() - processStart);
+	}
+
+	@Override
+	public void beforeWrite(List<Object> items) throws Exception {
+		writeStart = System.nanoTime();
+	}
+
+	@Override
+	public void afterWrite(List<Object> items) throws Exception {
+		writeEnd = System.nanoTime();
+		timings.record("write", writeEnd - writeStart);
+	}
+
+	@Override
+	public void onWriteError(List<Object> items, Exception ex) throws Exception {
+		writeEnd = System.nanoTime();
+		timings.record("write", writeEnd - writeStart);
+	}
+}
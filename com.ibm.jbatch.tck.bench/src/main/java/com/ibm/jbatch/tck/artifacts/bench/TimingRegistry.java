@@ -0,0 +1,124 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.ObjectName;
+
+/**
+ * Holds the timings published by TimingListener, and exposes them on the platform MBean server as 
+ * com.ibm.jbatch.tck:type=TimingRegistry.
+ *
+ * Only the most recent MAX_ENTRIES keys are kept, so a listener left on for a whole TCK run doesn't grow without bound.
+ */
+public class TimingRegistry implements TimingRegistryMBean {
+
+	private final static Logger logger = Logger.getLogger(TimingRegistry.class.getName());
+
+	public static final String OBJECT_NAME = "com.ibm.jbatch.tck:type=TimingRegistry";
+
+	private static final int MAX_ENTRIES = 200;
+
+	private static final TimingRegistry instance = new TimingRegistry();
+	private static boolean registered = false;
+
+	private final Map<String, PhaseTimings> timings = new LinkedHashMap<String, PhaseTimings>() {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, PhaseTimings> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	private TimingRegistry() {
+	}
+
+	/**
+	 * @return The registry, registered with the platform MBean server on first use (if the server lets us)
+	 */
+	public static synchronized TimingRegistry getInstance() {
+		if (!registered) {
+			registered = true;
+			try {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(instance, new ObjectName(OBJECT_NAME));
+			} catch (Exception e) {
+				// E.g. already registered by another application, or not permitted in this container.  The timings are still logged.
+				logger.log(Level.WARNING, "Couldn't register " + OBJECT_NAME, e);
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * Adds to whatever is already published under the key, so that partitions of a step add up.
+	 */
+	public synchronized void publish(String key, PhaseTimings phaseTimings) {
+		PhaseTimings existing = timings.get(key);
+		if (existing == null) {
+			existing = new PhaseTimings();
+			timings.put(key, existing);
+		}
+		existing.add(phaseTimings);
+	}
+
+	/**
+	 * @param key
+	 * @return A copy of the timings published under the key, or null if there are none
+	 */
+	public synchronized PhaseTimings getTimings(String key) {
+		PhaseTimings existing = timings.get(key);
+		if (existing == null) {
+			return null;
+		}
+		PhaseTimings copy = new PhaseTimings();
+		copy.add(existing);
+		return copy;
+	}
+
+	@Override
+	public synchronized String[] getKeys() {
+		return timings.keySet().toArray(new String[timings.size()]);
+	}
+
+	@Override
+	public synchronized String[] getSummaries() {
+		List<String> summaries = new ArrayList<String>(timings.size());
+		for (Map.Entry<String, PhaseTimings> entry : timings.entrySet()) {
+			summaries.add(entry.getKey() + " = " + entry.getValue());
+		}
+		return summaries.toArray(new String[summaries.size()]);
+	}
+
+	@Override
+	public synchronized String getSummary(String key) {
+		PhaseTimings existing = timings.get(key);
+		return existing == null ? null : existing.toString();
+	}
+
+	@Override
+	public synchronized void reset() {
+		timings.clear();
+	}
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+/**
+ * JMX view of the timings published by TimingListener.  Latencies are in usec.
+ */
+public interface TimingRegistryMBean {
+
+	/**
+	 * @return The keys of the published timings, oldest first
+	 */
+	public String[] getKeys();
+
+	/**
+	 * @return One line per published key
+	 */
+	public String[] getSummaries();
+
+	/**
+	 * @param key
+	 * @return The summary for the key, or null if there is none
+	 */
+	public String getSummary(String key);
+
+	public void reset();
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+import javax.batch.operations.JobOperator;
+import javax.batch.runtime.BatchRuntime;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+
+import com.ibm.jbatch.tck.spi.JobExecutionTimeoutException;
+import com.ibm.jbatch.tck.spi.JobExecutionWaiterFactory;
+import com.ibm.jbatch.tck.utils.ServiceGateway;
+
+/**
+ * Starts a job and waits for it to complete, through the same JobExecutionWaiterFactory SPI the
+ * TCK uses, so the benchmarks run against any implementation the TCK runs against.
+ *
+ * Unlike JobOperatorBridge, doesn't log to the TestNG Reporter, which would hold on to every 
+ * message for the life of the benchmark.
+ */
+public class BenchmarkJobRunner {
+
+	private final static Logger logger = Logger.getLogger(BenchmarkJobRunner.class.getName());
+
+	public static final String PROPERTIES_RESOURCE = "tck.bench.properties";
+
+	static {
+		loadSystemProperties();
+	}
+
+	private final JobOperator jobOp = BatchRuntime.getJobOperator();
+	private final JobExecutionWaiterFactory waiterFactory = ServiceGateway.getJobExecutionWaiterFactoryService();
+	private final long timeout = Long.parseLong(System.getProperty("tck.execution.waiter.timeout", "60000"));
+
+	/*
+	 * The implementation reads its configuration from system properties, so set them 
+	 * before the first call to BatchRuntime.
+	 */
+	private static void loadSystemProperties() {
+		InputStream in = BenchmarkJobRunner.class.getClassLoader().getResourceAsStream(PROPERTIES_RESOURCE);
+		if (in == null) {
+			logger.fine("No " + PROPERTIES_RESOURCE + " found on classpath");
+			return;
+		}
+		Properties props = new Properties();
+		try {
+			props.load(in);
+		} catch (IOException e) {
+			throw new IllegalStateException("Couldn't load " + PROPERTIES_RESOURCE, e);
+		} finally {
+			try {
+				in.close();
+			} catch (IOException e) {
+				// Ignore
+			}
+		}
+		for (String name : props.stringPropertyNames()) {
+			if (System.getProperty(name) == null) {
+				System.setProperty(name, props.getProperty(name));
+			}
+		}
+	}
+
+	public JobOperator getJobOperator() {
+		return jobOp;
+	}
+
+	/**
+	 * @param jobName
+	 * @param jobParameters
+	 * @return The terminated execution
+	 * @throws JobExecutionTimeoutException
+	 * @throws IllegalStateException If the job ended in any state other than COMPLETED, since a benchmark of a 
+	 * failing job would be measuring the wrong thing
+	 */
+	public JobExecution runToCompletion(String jobName, Properties jobParameters) throws JobExecutionTimeoutException {
+		return checkCompleted(run(jobName, jobParameters));
+	}
+
+	/**
+	 * @param jobName
+	 * @param jobParameters
+	 * @return The terminated execution, in whatever state
+	 * @throws JobExecutionTimeoutException
+	 */
+	public JobExecution run(String jobName, Properties jobParameters) throws JobExecutionTimeoutException {
+		long executionId = jobOp.start(jobName, jobParameters);
+		return await(executionId);
+	}
+
+	/**
+	 * @param executionId An execution started (or stopped) by the caller
+	 * @return The terminated execution, in whatever state
+	 * @throws JobExecutionTimeoutException
+	 */
+	public JobExecution await(long executionId) throws JobExecutionTimeoutException {
+		return waiterFactory.createWaiter(executionId, jobOp, timeout).awaitTermination();
+	}
+
+	/**
+	 * @param executionId The execution to restart
+	 * @param restartParameters
+	 * @return The terminated restart execution
+	 * @throws JobExecutionTimeoutException
+	 * @throws IllegalStateException If the restart ended in any state other than COMPLETED
+	 */
+	public JobExecution restartToCompletion(long executionId, Properties restartParameters) throws JobExecutionTimeoutException {
+		long restartId = jobOp.restart(executionId, restartParameters);
+		return checkCompleted(await(restartId));
+	}
+
+	private JobExecution checkCompleted(JobExecution execution) {
+		if (execution.getBatchStatus() != BatchStatus.COMPLETED) {
+			throw new IllegalStateException("Job " + execution.getJobName() + " with executionId = " + execution.getExecutionId() 
+					+ " ended with batch status = " + execution.getBatchStatus() + ", exit status = " + execution.getExitStatus());
+		}
+		return execution;
+	}
+}
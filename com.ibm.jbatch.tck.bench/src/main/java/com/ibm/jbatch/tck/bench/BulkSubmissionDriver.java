@@ -0,0 +1,132 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.bench;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import javax.batch.runtime.BatchStatus;
+
+import com.ibm.jbatch.tck.utils.JobOperatorBridge;
+import com.ibm.jbatch.tck.utils.TCKBulkExecutionResult;
+import com.ibm.jbatch.tck.utils.TCKJobExecutionWrapper;
+import com.ibm.jbatch.tck.utils.TCKJobSubmission;
+
+/**
+ * Pushes batches of concurrent TCK jobs through the runtime's thread pool with 
+ * JobOperatorBridge.startJobsAndWaitForResults(), printing one CSV line per job and batch size: 
+ * the jobs/sec over the whole batch, and the average and maximum create-to-end latency of its jobs.
+ *
+ * Run with e.g.
+ * <pre>
+ * java -Dbench.batch.sizes=10,100 -cp benchmarks.jar com.ibm.jbatch.tck.bench.BulkSubmissionDriver
+ * </pre>
+ *
+ * System properties (defaults in parentheses):
+ * <ul>
+ * <li>bench.jobs - jobs to submit, which must complete without job parameters (job_batchlet_1step,job_chunk_simple)
+ * <li>bench.batch.sizes - numbers of jobs to submit at once (1,10,100,500)
+ * <li>bench.warmup - unmeasured batches of each combination (1)
+ * <li>bench.runs - measured batches of each combination, of which the median (by elapsed time) is reported (3)
+ * </ul>
+ */
+public class BulkSubmissionDriver {
+
+	private static final String HEADER = "job,batchSize,elapsedMs,jobsPerSec,avgLatencyMs,maxLatencyMs";
+
+	// Sets the system properties the runtime reads, before the bridge gets the JobOperator
+	private final BenchmarkJobRunner runner = new BenchmarkJobRunner();
+	private final JobOperatorBridge bridge = new JobOperatorBridge();
+	private final PrintStream out;
+
+	private final int warmup = Integer.getInteger("bench.warmup", 1);
+	private final int runs = Integer.getInteger("bench.runs", 3);
+
+	public BulkSubmissionDriver(PrintStream out) {
+		this.out = out;
+	}
+
+	public static void main(String[] args) throws Exception {
+		String[] jobs = System.getProperty("bench.jobs", "job_batchlet_1step,job_chunk_simple").split(",");
+		int[] batchSizes = parseInts(System.getProperty("bench.batch.sizes", "1,10,100,500"));
+
+		BulkSubmissionDriver driver = new BulkSubmissionDriver(System.out);
+		driver.out.println(HEADER);
+		for (String job : jobs) {
+			for (int batchSize : batchSizes) {
+				driver.report(job.trim(), batchSize);
+			}
+		}
+	}
+
+	private static int[] parseInts(String list) {
+		String[] values = list.split(",");
+		int[] ints = new int[values.length];
+		for (int i = 0; i < values.length; i++) {
+			ints[i] = Integer.parseInt(values[i].trim());
+		}
+		return ints;
+	}
+
+	public void report(String jobName, int batchSize) throws Exception {
+		List<TCKJobSubmission> submissions = new ArrayList<TCKJobSubmission>(batchSize);
+		for (int i = 0; i < batchSize; i++) {
+			submissions.add(new TCKJobSubmission(jobName, new Properties()));
+		}
+
+		// One job on its own first, so a job that can't complete fails fast
+		runner.runToCompletion(jobName, new Properties());
+		for (int i = 0; i < warmup; i++) {
+			runBatch(submissions);
+		}
+		List<TCKBulkExecutionResult> measured = new ArrayList<TCKBulkExecutionResult>();
+		for (int i = 0; i < runs; i++) {
+			measured.add(runBatch(submissions));
+		}
+		Collections.sort(measured, new Comparator<TCKBulkExecutionResult>() {
+			@Override
+			public int compare(TCKBulkExecutionResult r1, TCKBulkExecutionResult r2) {
+				return r1.getElapsedTime() < r2.getElapsedTime() ? -1 : (r1.getElapsedTime() == r2.getElapsedTime() ? 0 : 1);
+			}
+		});
+		TCKBulkExecutionResult result = measured.get(measured.size() / 2);
+		out.println(jobName + "," + batchSize + "," + result.getElapsedTime() + "," + format(result.getThroughput()) + ","
+				+ format(result.getAverageLatency()) + "," + result.getMaxLatency());
+		out.flush();
+	}
+
+	private TCKBulkExecutionResult runBatch(List<TCKJobSubmission> submissions) throws Exception {
+		TCKBulkExecutionResult result = bridge.startJobsAndWaitForResults(submissions);
+		for (TCKJobExecutionWrapper execution : result.getExecutions()) {
+			if (execution.getBatchStatus() != BatchStatus.COMPLETED) {
+				throw new IllegalStateException("Job " + execution.getJobName() + " with executionId = " + execution.getExecutionId() 
+						+ " ended with batch status = " + execution.getBatchStatus() + ", exit status = " + execution.getExitStatus());
+			}
+		}
+		return result;
+	}
+
+	private static String format(double d) {
+		// Not the default locale, which could use commas
+		return String.format(Locale.ROOT, "%.3f", d);
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.bench;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.StreamCorruptedException;
+
+/**
+ * Variable-length int encoding for VarIntCheckpointData, so the small counts and indexes it holds take 
+ * one or two bytes of every checkpoint written to the job repository, not four.
+ */
+public class CheckpointCodec {
+
+	/**
+	 * Writes 1 to 5 bytes, fewer the closer value is to 0 (negative values are zigzag encoded).
+	 */
+	public static void writeVarInt(ObjectOutput out, int value) throws IOException {
+		int v = (value << 1) ^ (value >> 31);
+		while ((v & ~0x7F) != 0) {
+			out.writeByte((v & 0x7F) | 0x80);
+			v >>>= 7;
+		}
+		out.writeByte(v);
+	}
+
+	public static int readVarInt(ObjectInput in) throws IOException {
+		int v = 0;
+		int shift = 0;
+		int b;
+		do {
+			if (shift > 28) {
+				throw new StreamCorruptedException("Malformed variable-length int in checkpoint");
+			}
+			b = in.readUnsignedByte();
+			v |= (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return (v >>> 1) ^ -(v & 1);
+	}
+}
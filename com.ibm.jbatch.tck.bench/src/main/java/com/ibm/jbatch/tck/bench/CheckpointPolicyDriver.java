@@ -0,0 +1,155 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.bench;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.Metric;
+import javax.batch.runtime.StepExecution;
+
+/**
+ * Runs bench_checkpoint_policies, the same CPU-bound chunk step checkpointed by item count ("itemCount"), by 
+ * time-limit ("timeLimit"), by a custom algorithm with a fixed item count ("fixedCustom") and by 
+ * AdaptiveCheckpointAlgorithm ("adaptive"), printing one CSV line per step: its median wall time and throughput, 
+ * and the number and average size and time of its chunks.
+ *
+ * Against itemCount, fixedCustom shows the cost of calling a checkpoint algorithm for every item; adaptive 
+ * shows where it settles for the given target.millis, which timeLimit (in whole seconds) can only approach with 
+ * time-limit 1 and a target of 1000.  Sweep bench.work.units to see how each policy copes with a change in the 
+ * cost per item, which the fixed counts have to be tuned by hand for.
+ *
+ * System properties (defaults in parentheses):
+ * <ul>
+ * <li>bench.work.units - CPU work per item, see CpuWork; one line per step for each (100,1000,10000)
+ * <li>bench.items - items per step (100000)
+ * <li>bench.commit.interval - for itemCount and fixedCustom (100)
+ * <li>bench.time.limit - for timeLimit, in seconds (1)
+ * <li>bench.target.millis - for adaptive (1000)
+ * <li>bench.warmup - unmeasured runs of the job for each work.units (2)
+ * <li>bench.runs - measured runs of the job for each work.units, of which the median of each step is reported (5)
+ * </ul>
+ */
+public class CheckpointPolicyDriver {
+
+	private static final String JOB_NAME = "bench_checkpoint_policies";
+
+	private static final String HEADER = "workUnits,step,stepMs,itemsPerSec,commits,avgItemsPerChunk,avgChunkMs";
+
+	private final BenchmarkJobRunner runner = new BenchmarkJobRunner();
+	private final PrintStream out;
+
+	private final int items = Integer.getInteger("bench.items", 100000);
+	private final int commitInterval = Integer.getInteger("bench.commit.interval", 100);
+	private final int timeLimit = Integer.getInteger("bench.time.limit", 1);
+	private final long targetMillis = Long.getLong("bench.target.millis", 1000L);
+	private final int warmup = Integer.getInteger("bench.warmup", 2);
+	private final int runs = Integer.getInteger("bench.runs", 5);
+
+	public CheckpointPolicyDriver(PrintStream out) {
+		this.out = out;
+	}
+
+	public static void main(String[] args) throws Exception {
+		String[] workUnits = System.getProperty("bench.work.units", "100,1000,10000").split(",");
+
+		CheckpointPolicyDriver driver = new CheckpointPolicyDriver(System.out);
+		driver.out.println(HEADER);
+		for (String units : workUnits) {
+			driver.report(Long.parseLong(units.trim()));
+		}
+	}
+
+	public void report(long workUnits) throws Exception {
+		for (Map.Entry<String, Run> entry : measure(workUnits).entrySet()) {
+			Run run = entry.getValue();
+			out.println(workUnits + "," + entry.getKey() + "," + run.wallMillis + ","
+					+ format(run.wallMillis == 0 ? 0 : items * 1000.0 / run.wallMillis) + "," + run.commits + ","
+					+ format(run.commits == 0 ? 0 : (double) items / run.commits) + ","
+					+ format(run.commits == 0 ? 0 : (double) run.wallMillis / run.commits));
+		}
+		out.flush();
+	}
+
+	/**
+	 * @return The median run (by wall time) of each step, in step order
+	 */
+	private Map<String, Run> measure(long workUnits) throws Exception {
+		Properties jobParameters = new Properties();
+		jobParameters.setProperty("item.count", String.valueOf(items));
+		jobParameters.setProperty("work.units", String.valueOf(workUnits));
+		jobParameters.setProperty("commit.interval", String.valueOf(commitInterval));
+		jobParameters.setProperty("time.limit", String.valueOf(timeLimit));
+		jobParameters.setProperty("target.millis", String.valueOf(targetMillis));
+
+		for (int i = 0; i < warmup; i++) {
+			runner.runToCompletion(JOB_NAME, jobParameters);
+		}
+		Map<String, List<Run>> stepRuns = new LinkedHashMap<String, List<Run>>();
+		for (int i = 0; i < runs; i++) {
+			JobExecution execution = runner.runToCompletion(JOB_NAME, jobParameters);
+			for (StepExecution stepExecution : runner.getJobOperator().getStepExecutions(execution.getExecutionId())) {
+				Run run = new Run(stepExecution.getEndTime().getTime() - stepExecution.getStartTime().getTime());
+				for (Metric metric : stepExecution.getMetrics()) {
+					if (metric.getType() == Metric.MetricType.COMMIT_COUNT) {
+						run.commits = metric.getValue();
+					}
+				}
+				List<Run> measured = stepRuns.get(stepExecution.getStepName());
+				if (measured == null) {
+					measured = new ArrayList<Run>();
+					stepRuns.put(stepExecution.getStepName(), measured);
+				}
+				measured.add(run);
+			}
+		}
+		Map<String, Run> medians = new LinkedHashMap<String, Run>();
+		for (Map.Entry<String, List<Run>> entry : stepRuns.entrySet()) {
+			List<Run> measured = entry.getValue();
+			Collections.sort(measured, new Comparator<Run>() {
+				@Override
+				public int compare(Run r1, Run r2) {
+					return r1.wallMillis < r2.wallMillis ? -1 : (r1.wallMillis == r2.wallMillis ? 0 : 1);
+				}
+			});
+			medians.put(entry.getKey(), measured.get(measured.size() / 2));
+		}
+		return medians;
+	}
+
+	private static String format(double d) {
+		// Not the default locale, which could use commas
+		return String.format(Locale.ROOT, "%.3f", d);
+	}
+
+	private static class Run {
+		private final long wallMillis;
+		private long commits;
+
+		private Run(long wallMillis) {
+			this.wallMillis = wallMillis;
+		}
+	}
+}
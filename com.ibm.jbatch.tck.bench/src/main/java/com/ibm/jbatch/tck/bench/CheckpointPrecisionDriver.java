@@ -0,0 +1,142 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.bench;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.Properties;
+
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.StepExecution;
+
+import com.ibm.jbatch.tck.artifacts.bench.CheckpointIntervals;
+import com.ibm.jbatch.tck.artifacts.bench.LatencyHistogram;
+
+/**
+ * Sweeps the time-limit and the number of competing partitions over bench_checkpoint_time, in which each 
+ * partition reads for a fixed time with only the time-limit ending its chunks, printing one CSV line per 
+ * combination of how far the intervals between commits overshot the time-limit.
+ *
+ * With more partitions than cores, each partition's thread waits its turn for a CPU, so the runtime notices 
+ * the time-limit has passed later: the overshoot percentiles against the partition count are the checkpoint 
+ * timer's jitter under load.  Even unloaded, an interval overshoots by at least one item (see bench.work.units) 
+ * and a commit, since the runtime only checks the time-limit between items.  Early commits should be just the 
+ * last chunk of each partition in each run, ended by the reader running out of time rather than by the time-limit.
+ *
+ * The intervals of all the measured runs of a combination are added up, rather than one run reported.
+ *
+ * System properties (defaults in parentheses):
+ * <ul>
+ * <li>bench.time.limits - chunk time-limits to sweep, in seconds (1,2)
+ * <li>bench.partitions - partition counts to sweep; 0 means the number of cores (1,0,2x,4x) where "Nx" is N times the cores
+ * <li>bench.intervals - time-limits each partition runs for, and so about how many intervals it records (10)
+ * <li>bench.work.units - CPU work per item read, see CpuWork (1000)
+ * <li>bench.warmup - unmeasured runs of each combination (1)
+ * <li>bench.runs - measured runs of each combination (3)
+ * </ul>
+ *
+ * The intervals are System.nanoTime() based, so only meaningful when partitions run in the driver's JVM.
+ */
+public class CheckpointPrecisionDriver {
+
+	private static final String JOB_NAME = "bench_checkpoint_time";
+
+	private static final String HEADER = "partitions,timeLimitS,intervals,earlyCommits,meanIntervalMs,p50OvershootMs,p90OvershootMs,"
+			+ "p99OvershootMs,maxOvershootMs";
+
+	private final BenchmarkJobRunner runner = new BenchmarkJobRunner();
+	private final PrintStream out;
+
+	private final int intervals = Integer.getInteger("bench.intervals", 10);
+	private final long workUnits = Long.getLong("bench.work.units", 1000L);
+	private final int warmup = Integer.getInteger("bench.warmup", 1);
+	private final int runs = Integer.getInteger("bench.runs", 3);
+
+	public CheckpointPrecisionDriver(PrintStream out) {
+		this.out = out;
+	}
+
+	public static void main(String[] args) throws Exception {
+		int[] timeLimits = parseInts(System.getProperty("bench.time.limits", "1,2"));
+		String[] partitionCounts = System.getProperty("bench.partitions", "1,0,2x,4x").split(",");
+		int cores = Runtime.getRuntime().availableProcessors();
+
+		CheckpointPrecisionDriver driver = new CheckpointPrecisionDriver(System.out);
+		driver.out.println(HEADER);
+		for (String partitionCount : partitionCounts) {
+			int partitions = parsePartitions(partitionCount.trim(), cores);
+			for (int timeLimit : timeLimits) {
+				driver.report(partitions, timeLimit);
+			}
+		}
+	}
+
+	private static int parsePartitions(String partitions, int cores) {
+		if (partitions.endsWith("x")) {
+			return Integer.parseInt(partitions.substring(0, partitions.length() - 1)) * cores;
+		}
+		int count = Integer.parseInt(partitions);
+		return count == 0 ? cores : count;
+	}
+
+	private static int[] parseInts(String list) {
+		String[] values = list.split(",");
+		int[] ints = new int[values.length];
+		for (int i = 0; i < values.length; i++) {
+			ints[i] = Integer.parseInt(values[i].trim());
+		}
+		return ints;
+	}
+
+	public void report(int partitions, int timeLimit) throws Exception {
+		CheckpointIntervals total = measure(partitions, timeLimit);
+		LatencyHistogram overshoots = total.getOvershoots();
+		out.println(partitions + "," + timeLimit + "," + total.getIntervals().getCount() + "," + total.getEarlyCommits() + ","
+				+ format(total.getIntervals().getMean() / 1000000) + "," + millis(overshoots.getValueAtPercentile(50)) + ","
+				+ millis(overshoots.getValueAtPercentile(90)) + "," + millis(overshoots.getValueAtPercentile(99)) + ","
+				+ millis(overshoots.getMax()));
+		out.flush();
+	}
+
+	private CheckpointIntervals measure(int partitions, int timeLimit) throws Exception {
+		Properties jobParameters = new Properties();
+		jobParameters.setProperty("numPartitionsProp", String.valueOf(partitions));
+		jobParameters.setProperty("time.limit", String.valueOf(timeLimit));
+		jobParameters.setProperty("run.seconds", String.valueOf(timeLimit * intervals));
+		jobParameters.setProperty("work.units", String.valueOf(workUnits));
+
+		for (int i = 0; i < warmup; i++) {
+			runner.runToCompletion(JOB_NAME, jobParameters);
+		}
+		CheckpointIntervals total = new CheckpointIntervals();
+		for (int i = 0; i < runs; i++) {
+			JobExecution execution = runner.runToCompletion(JOB_NAME, jobParameters);
+			StepExecution stepExecution = runner.getJobOperator().getStepExecutions(execution.getExecutionId()).get(0);
+			total.add((CheckpointIntervals) stepExecution.getPersistentUserData());
+		}
+		return total;
+	}
+
+	private static String millis(long nanos) {
+		return format(nanos / 1000000.0);
+	}
+
+	private static String format(double d) {
+		// Not the default locale, which could use commas
+		return String.format(Locale.ROOT, "%.3f", d);
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.jbatch.tck.artifacts.chunktypes.ArrayIndexCheckpointData;
+import com.ibm.jbatch.tck.artifacts.chunktypes.InventoryCheckpointData;
+import com.ibm.jbatch.tck.artifacts.chunktypes.NumbersCheckpointData;
+
+/**
+ * Serializes and deserializes the TCK's checkpoint types the way a runtime must on every commit (a new 
+ * ObjectOutputStream each time), with VarIntCheckpointData and a boxed Integer and Long for comparison.
+ * The serialized size, i.e. what each commit writes to the job repository, is printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class CheckpointSizeBenchmark {
+
+	@Param({"ArrayIndexCheckpointData", "NumbersCheckpointData", "InventoryCheckpointData", "VarIntCheckpointData",
+		"Integer", "Long"})
+	public String type;
+
+	@Param({"10", "100000"})
+	public int value;
+
+	private Serializable checkpoint;
+	private byte[] serialized;
+	private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		if ("ArrayIndexCheckpointData".equals(type)) {
+			ArrayIndexCheckpointData cpd = new ArrayIndexCheckpointData();
+			cpd.setCurrentIndex(value);
+			checkpoint = cpd;
+		} else if ("NumbersCheckpointData".equals(type)) {
+			NumbersCheckpointData cpd = new NumbersCheckpointData();
+			cpd.setCount(value);
+			checkpoint = cpd;
+		} else if ("InventoryCheckpointData".equals(type)) {
+			InventoryCheckpointData cpd = new InventoryCheckpointData();
+			cpd.setInventoryCount(value);
+			checkpoint = cpd;
+		} else if ("VarIntCheckpointData".equals(type)) {
+			checkpoint = new VarIntCheckpointData(value);
+		} else if ("Integer".equals(type)) {
+			checkpoint = Integer.valueOf(value);
+		} else if ("Long".equals(type)) {
+			checkpoint = Long.valueOf(value);
+		} else {
+			throw new IllegalArgumentException("Unknown checkpoint type: " + type);
+		}
+		serialized = serialize();
+		System.out.println("Serialized size of " + type + "(" + value + ") = " + serialized.length + " bytes");
+	}
+
+	@Benchmark
+	public byte[] serialize() throws IOException {
+		buffer.reset();
+		ObjectOutputStream oos = new ObjectOutputStream(buffer);
+		oos.writeObject(checkpoint);
+		oos.close();
+		return buffer.toByteArray();
+	}
+
+	@Benchmark
+	public Object deserialize() throws IOException, ClassNotFoundException {
+		ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(serialized));
+		try {
+			return ois.readObject();
+		} finally {
+			ois.close();
+		}
+	}
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.bench;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import javax.batch.operations.JobOperator;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.Metric;
+import javax.batch.runtime.StepExecution;
+
+import com.ibm.jbatch.tck.artifacts.bench.DynamicPartitionMapper.KeyRangePlan;
+
+/**
+ * Runs bench_partition_dynamic, whose three steps ("small", "medium" and "large") each size their partition plan 
+ * from their input with DynamicPartitionMapper, and then checks what a restart does with that plan.
+ *
+ * First the job is run to completion, printing one CSV line per step: the plan chosen for each data size and 
+ * the resulting throughput.  The restart lines are for the restarted large step alone.  Then, once with "partitionsOverride" = "false" and once with "true", the job is stopped 
+ * while its "large" step is running and restarted with a different "max.partitions".  Without the override the 
+ * restart has to reuse the KeyRangePlan kept in the step's persistent user data, so the partition count doesn't 
+ * change; with it the plan has to be recomputed for the new limit.  Either way the driver fails with an 
+ * IllegalStateException if the restarted step's plan isn't the expected one.
+ *
+ * System properties (defaults in parentheses):
+ * <ul>
+ * <li>bench.sizes - items in the small, medium and large steps (1000,100000,1000000)
+ * <li>bench.work.units - CPU work per item, see CpuWork (1000)
+ * <li>bench.commit.interval - (100)
+ * <li>bench.max.partitions - partition limit of the first execution (4)
+ * <li>bench.restart.max.partitions - partition limit of the restart, which must differ (2)
+ * <li>bench.warmup - unmeasured runs to completion (1)
+ * <li>bench.runs - measured runs to completion, of which the median (by job wall time) is reported (3)
+ * </ul>
+ *
+ * The large step must run long enough to be stopped, so keep its size and work units high enough for that.
+ */
+public class DynamicPartitionDriver {
+
+	private static final String JOB_NAME = "bench_partition_dynamic";
+	private static final String[] STEPS = { "small", "medium", "large" };
+	private static final String STOPPED_STEP = "large";
+
+	private static final String HEADER = "run,step,inputSize,partitions,planReused,itemsRead,wallMs,itemsPerSec";
+
+	private final BenchmarkJobRunner runner = new BenchmarkJobRunner();
+	private final PrintStream out;
+
+	private final long workUnits = Long.getLong("bench.work.units", 1000L);
+	private final int commitInterval = Integer.getInteger("bench.commit.interval", 100);
+	private final int maxPartitions = Integer.getInteger("bench.max.partitions", 4);
+	private final int restartMaxPartitions = Integer.getInteger("bench.restart.max.partitions", 2);
+	private final int warmup = Integer.getInteger("bench.warmup", 1);
+	private final int runs = Integer.getInteger("bench.runs", 3);
+
+	public DynamicPartitionDriver(PrintStream out) {
+		this.out = out;
+	}
+
+	public static void main(String[] args) throws Exception {
+		int[] sizes = parseInts(System.getProperty("bench.sizes", "1000,100000,1000000"));
+		if (sizes.length != STEPS.length) {
+			throw new IllegalArgumentException("bench.sizes must have one size for each of the steps small, medium and large");
+		}
+
+		DynamicPartitionDriver driver = new DynamicPartitionDriver(System.out);
+		driver.out.println(HEADER);
+		driver.runToCompletion(sizes);
+		driver.stopAndRestart(sizes, false);
+		driver.stopAndRestart(sizes, true);
+	}
+
+	private static int[] parseInts(String list) {
+		String[] values = list.split(",");
+		int[] ints = new int[values.length];
+		for (int i = 0; i < values.length; i++) {
+			ints[i] = Integer.parseInt(values[i].trim());
+		}
+		return ints;
+	}
+
+	public void runToCompletion(int[] sizes) throws Exception {
+		Properties jobParameters = jobParameters(sizes, maxPartitions, false);
+		for (int i = 0; i < warmup; i++) {
+			runner.runToCompletion(JOB_NAME, jobParameters);
+		}
+		List<JobExecution> measured = new ArrayList<JobExecution>();
+		for (int i = 0; i < runs; i++) {
+			measured.add(runner.runToCompletion(JOB_NAME, jobParameters));
+		}
+		Collections.sort(measured, new Comparator<JobExecution>() {
+			@Override
+			public int compare(JobExecution e1, JobExecution e2) {
+				long wall1 = wallMillis(e1.getStartTime(), e1.getEndTime());
+				long wall2 = wallMillis(e2.getStartTime(), e2.getEndTime());
+				return wall1 < wall2 ? -1 : (wall1 == wall2 ? 0 : 1);
+			}
+		});
+		JobExecution median = measured.get(measured.size() / 2);
+		for (StepExecution step : runner.getJobOperator().getStepExecutions(median.getExecutionId())) {
+			print("complete", step, "");
+		}
+	}
+
+	/**
+	 * Stops the job in its large step and restarts it with a lower partition limit.
+	 * 
+	 * @param override The "partitionsOverride" of the restart
+	 * @throws IllegalStateException If the restarted step didn't reuse (override false) or recompute (override true) the plan
+	 */
+	public void stopAndRestart(int[] sizes, boolean override) throws Exception {
+		if (restartMaxPartitions == maxPartitions) {
+			throw new IllegalArgumentException("bench.restart.max.partitions must differ from bench.max.partitions, or a recomputed plan can't be told apart");
+		}
+		JobOperator jobOp = runner.getJobOperator();
+		long executionId = jobOp.start(JOB_NAME, jobParameters(sizes, maxPartitions, false));
+		awaitStep(executionId, STOPPED_STEP);
+		jobOp.stop(executionId);
+		JobExecution stopped = runner.await(executionId);
+		if (stopped.getBatchStatus() != BatchStatus.STOPPED) {
+			throw new IllegalStateException("Expected execution " + executionId + " to stop in step " + STOPPED_STEP 
+					+ ", but batch status = " + stopped.getBatchStatus() + "; try a larger size or more work units");
+		}
+		KeyRangePlan stoppedPlan = getPlan(executionId, STOPPED_STEP);
+		if (stoppedPlan.getPartitions() != maxPartitions) {
+			throw new IllegalStateException("Expected " + maxPartitions + " partitions in step " + STOPPED_STEP + ", but planned " + stoppedPlan);
+		}
+
+		JobExecution restarted = runner.restartToCompletion(executionId, jobParameters(sizes, restartMaxPartitions, override));
+		StepExecution restartedStep = getStepExecution(restarted.getExecutionId(), STOPPED_STEP);
+		KeyRangePlan restartedPlan = getPlan(restartedStep);
+		boolean reused = restartedPlan.toString().equals(stoppedPlan.toString());
+		int expectedPartitions = override ? restartMaxPartitions : maxPartitions;
+		if (reused == override || restartedPlan.getPartitions() != expectedPartitions) {
+			throw new IllegalStateException("With partitionsOverride = " + override + " expected the restart to " 
+					+ (override ? "recompute" : "reuse") + " the plan " + stoppedPlan + ", but it ran with " + restartedPlan);
+		}
+		print(override ? "restartOverride" : "restart", restartedStep, String.valueOf(reused));
+	}
+
+	private Properties jobParameters(int[] sizes, int partitionLimit, boolean override) {
+		Properties jobParameters = new Properties();
+		for (int i = 0; i < STEPS.length; i++) {
+			jobParameters.setProperty(STEPS[i] + ".size", String.valueOf(sizes[i]));
+		}
+		jobParameters.setProperty("work.units", String.valueOf(workUnits));
+		jobParameters.setProperty("commit.interval", String.valueOf(commitInterval));
+		// Enough per core that max.partitions, not the core count, is the limit
+		jobParameters.setProperty("partitions.per.core", String.valueOf(Math.max(maxPartitions, restartMaxPartitions)));
+		jobParameters.setProperty("max.partitions", String.valueOf(partitionLimit));
+		jobParameters.setProperty("partitionsOverride", String.valueOf(override));
+		return jobParameters;
+	}
+
+	private void awaitStep(long executionId, String stepName) throws InterruptedException {
+		JobOperator jobOp = runner.getJobOperator();
+		while (true) {
+			for (StepExecution step : jobOp.getStepExecutions(executionId)) {
+				if (step.getStepName().equals(stepName)) {
+					return;
+				}
+			}
+			BatchStatus status = jobOp.getJobExecution(executionId).getBatchStatus();
+			if (status != BatchStatus.STARTING && status != BatchStatus.STARTED) {
+				throw new IllegalStateException("Execution " + executionId + " ended with batch status = " + status 
+						+ " before reaching step " + stepName);
+			}
+			Thread.sleep(10);
+		}
+	}
+
+	private StepExecution getStepExecution(long executionId, String stepName) {
+		for (StepExecution step : runner.getJobOperator().getStepExecutions(executionId)) {
+			if (step.getStepName().equals(stepName)) {
+				return step;
+			}
+		}
+		throw new IllegalStateException("No step " + stepName + " in execution " + executionId);
+	}
+
+	private KeyRangePlan getPlan(long executionId, String stepName) {
+		return getPlan(getStepExecution(executionId, stepName));
+	}
+
+	private static KeyRangePlan getPlan(StepExecution step) {
+		if (!(step.getPersistentUserData() instanceof KeyRangePlan)) {
+			throw new IllegalStateException("Step " + step.getStepName() + " (step execution " + step.getStepExecutionId() 
+					+ ") has no KeyRangePlan in its persistent user data: " + step.getPersistentUserData());
+		}
+		return (KeyRangePlan) step.getPersistentUserData();
+	}
+
+	private void print(String run, StepExecution step, String planReused) {
+		KeyRangePlan plan = getPlan(step);
+		// A restart only reads what the stopped partitions hadn't, unless the plan was recomputed
+		long itemsRead = 0;
+		for (Metric metric : step.getMetrics()) {
+			if (metric.getType() == Metric.MetricType.READ_COUNT) {
+				itemsRead = metric.getValue();
+			}
+		}
+		long wallMillis = wallMillis(step.getStartTime(), step.getEndTime());
+		out.println(run + "," + step.getStepName() + "," + plan.getInputSize() + "," + plan.getPartitions() + "," + planReused + ","
+				+ itemsRead + "," + wallMillis + "," + format(wallMillis == 0 ? 0 : itemsRead * 1000.0 / wallMillis));
+		out.flush();
+	}
+
+	private static long wallMillis(Date start, Date end) {
+		return end.getTime() - start.getTime();
+	}
+
+	private static String format(double d) {
+		// Not the default locale, which could use commas
+		return String.format(Locale.ROOT, "%.3f", d);
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.bench;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.Metric;
+import javax.batch.runtime.StepExecution;
+
+import com.ibm.jbatch.tck.artifacts.bench.FailureInjectingItemReader;
+import com.ibm.jbatch.tck.artifacts.bench.FailureInjector;
+
+/**
+ * Sweeps the failure rate over bench_failure_storm, failing items in one phase (read, process or write) at a time 
+ * with one kind of exception at a time, printing one CSV line per combination: the throughput, how much slower 
+ * that is than with no failures, and what the runtime did about them.
+ *
+ * The cost of each failure is the extra wall time over the run with no failures, divided by the failures injected.  
+ * For a retry with rollback that includes replaying the rest of the chunk: the reads beyond item.count are the 
+ * items read again after a rollback.
+ *
+ * System properties (defaults in parentheses):
+ * <ul>
+ * <li>bench.failure.rates - percentages of items to fail (0,0.1,1,2,5,10)
+ * <li>bench.failure.phases - read, process and/or write (read,process,write)
+ * <li>bench.failure.exceptions - skip, retry and/or retry.norollback (skip,retry,retry.norollback)
+ * <li>bench.failure.mode - uniform or burst (uniform)
+ * <li>bench.burst.length - (10)
+ * <li>bench.items - (100000)
+ * <li>bench.commit.interval - (100)
+ * <li>bench.warmup - unmeasured runs of each combination (1)
+ * <li>bench.runs - measured runs of each combination, of which the median (by wall time) is reported (3)
+ * </ul>
+ * 
+ * The injected failures and reads are counted in static fields, so the runtime must run in the driver's JVM.
+ */
+public class FailureStormDriver {
+
+	private static final String JOB_NAME = "bench_failure_storm";
+
+	private static final String HEADER = "phase,exception,mode,ratePct,wallMs,itemsPerSec,slowdown,failures,skips,rollbacks,commits,"
+			+ "replayedReads,extraMsPerFailure";
+
+	private final BenchmarkJobRunner runner = new BenchmarkJobRunner();
+	private final PrintStream out;
+
+	private final String mode = System.getProperty("bench.failure.mode", "uniform");
+	private final int burstLength = Integer.getInteger("bench.burst.length", 10);
+	private final int items = Integer.getInteger("bench.items", 100000);
+	private final int commitInterval = Integer.getInteger("bench.commit.interval", 100);
+	private final int warmup = Integer.getInteger("bench.warmup", 1);
+	private final int runs = Integer.getInteger("bench.runs", 3);
+
+	public FailureStormDriver(PrintStream out) {
+		this.out = out;
+	}
+
+	public static void main(String[] args) throws Exception {
+		String[] rates = System.getProperty("bench.failure.rates", "0,0.1,1,2,5,10").split(",");
+		String[] phases = System.getProperty("bench.failure.phases", "read,process,write").split(",");
+		String[] exceptions = System.getProperty("bench.failure.exceptions", "skip,retry,retry.norollback").split(",");
+
+		FailureStormDriver driver = new FailureStormDriver(System.out);
+		driver.out.println(HEADER);
+		for (String phase : phases) {
+			for (String exception : exceptions) {
+				driver.sweep(phase.trim(), exception.trim(), rates);
+			}
+		}
+	}
+
+	/**
+	 * Slowdown and extra time are relative to a run with no failures, measured first.
+	 */
+	public void sweep(String phase, String exception, String[] rates) throws Exception {
+		Run baseline = measure(phase, exception, "0");
+		for (String rate : rates) {
+			Run run = "0".equals(rate.trim()) ? baseline : measure(phase, exception, rate.trim());
+			out.println(phase + "," + exception + "," + mode + "," + rate.trim() + "," + run.wallMillis + ","
+					+ format(run.wallMillis == 0 ? 0 : items * 1000.0 / run.wallMillis) + ","
+					+ format(baseline.wallMillis == 0 ? 0 : (double) run.wallMillis / baseline.wallMillis) + ","
+					+ run.failures + "," + run.skips + "," + run.rollbacks + "," + run.commits + "," + (run.reads - items) + ","
+					+ format(run.failures == 0 ? 0 : (double) (run.wallMillis - baseline.wallMillis) / run.failures));
+			out.flush();
+		}
+	}
+
+	private Run measure(String phase, String exception, String rate) throws Exception {
+		Properties jobParameters = new Properties();
+		jobParameters.setProperty("item.count", String.valueOf(items));
+		jobParameters.setProperty("commit.interval", String.valueOf(commitInterval));
+		jobParameters.setProperty(phase + ".failure.rate", rate);
+		jobParameters.setProperty("failure.mode", mode);
+		jobParameters.setProperty("burst.length", String.valueOf(burstLength));
+		jobParameters.setProperty("failure.exception", exception);
+
+		for (int i = 0; i < warmup; i++) {
+			runner.runToCompletion(JOB_NAME, jobParameters);
+		}
+		List<Run> measured = new ArrayList<Run>();
+		for (int i = 0; i < runs; i++) {
+			FailureInjector.resetCounts();
+			JobExecution execution = runner.runToCompletion(JOB_NAME, jobParameters);
+			StepExecution stepExecution = runner.getJobOperator().getStepExecutions(execution.getExecutionId()).get(0);
+			Run run = new Run(stepExecution.getEndTime().getTime() - stepExecution.getStartTime().getTime());
+			run.failures = FailureInjector.getFailures();
+			run.reads = FailureInjectingItemReader.getReads();
+			for (Metric metric : stepExecution.getMetrics()) {
+				switch (metric.getType()) {
+				case READ_SKIP_COUNT:
+				case PROCESS_SKIP_COUNT:
+				case WRITE_SKIP_COUNT:
+					run.skips += metric.getValue();
+					break;
+				case ROLLBACK_COUNT:
+					run.rollbacks = metric.getValue();
+					break;
+				case COMMIT_COUNT:
+					run.commits = metric.getValue();
+					break;
+				default:
+					break;
+				}
+			}
+			measured.add(run);
+		}
+		Collections.sort(measured, new Comparator<Run>() {
+			@Override
+			public int compare(Run r1, Run r2) {
+				return r1.wallMillis < r2.wallMillis ? -1 : (r1.wallMillis == r2.wallMillis ? 0 : 1);
+			}
+		});
+		return measured.get(measured.size() / 2);
+	}
+
+	private static String format(double d) {
+		// Not the default locale, which could use commas
+		return String.format(Locale.ROOT, "%.3f", d);
+	}
+
+	private static class Run {
+		private final long wallMillis;
+		private long failures = 0;
+		private long reads = 0;
+		private long skips = 0;
+		private long rollbacks = 0;
+		private long commits = 0;
+
+		private Run(long wallMillis) {
+			this.wallMillis = wallMillis;
+		}
+	}
+}
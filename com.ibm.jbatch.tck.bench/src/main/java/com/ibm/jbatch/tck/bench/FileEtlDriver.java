@@ -0,0 +1,307 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.bench;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import javax.batch.operations.JobOperator;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.StepExecution;
+
+import com.ibm.jbatch.tck.artifacts.bench.DynamicPartitionMapper.KeyRangePlan;
+
+/**
+ * Generates a flat file with bench_file_generate and copies it with bench_file_etl, whose partitions each map a 
+ * byte range of the file (MappedFileItemReader) and write it to their own part-N.dat (ChannelFileItemWriter).  
+ * After every copy the part files, concatenated in order, must be the input byte for byte, and there must be 
+ * no part files beyond the plan's partition count; otherwise the driver fails with an IllegalStateException.
+ *
+ * Prints one CSV line for each of
+ * <ul>
+ * <li>complete - the median (by wall time) of the runs to completion
+ * <li>restart - a copy stopped once some output was written, and restarted with the same plan, so each partition
+ * seeks back to its checkpointed input offset and truncates its part file to its checkpointed size
+ * <li>restartOverride - a copy stopped the same way, and restarted with "partitionsOverride" = "true" and a lower 
+ * "max.partitions", so the restart makes a new plan with fewer partitions over the part files of the old one
+ * </ul>
+ *
+ * System properties (defaults in parentheses):
+ * <ul>
+ * <li>bench.dir - where the input file and the output directory go (a new temporary directory, deleted at exit)
+ * <li>bench.records - lines in the input (1000000)
+ * <li>bench.record.size - bytes per line, without the newline (100)
+ * <li>bench.min.partition.size - bytes (8388608)
+ * <li>bench.max.partitions - partition limit of the first execution (4)
+ * <li>bench.restart.max.partitions - partition limit of the override restart (2)
+ * <li>bench.commit.interval - (1000)
+ * <li>bench.warmup - unmeasured runs to completion (1)
+ * <li>bench.runs - measured runs to completion (3)
+ * </ul>
+ *
+ * The copy must run long enough to be stopped part way, so keep the input large enough for that.
+ */
+public class FileEtlDriver {
+
+	private static final String GENERATE_JOB = "bench_file_generate";
+	private static final String ETL_JOB = "bench_file_etl";
+
+	private static final String HEADER = "run,partitions,inputMB,wallMs,MBPerSec";
+
+	private final BenchmarkJobRunner runner = new BenchmarkJobRunner();
+	private final PrintStream out;
+
+	private final long records = Long.getLong("bench.records", 1000000L);
+	private final int recordSize = Integer.getInteger("bench.record.size", 100);
+	private final long minPartitionSize = Long.getLong("bench.min.partition.size", 8 * 1024 * 1024L);
+	private final int maxPartitions = Integer.getInteger("bench.max.partitions", 4);
+	private final int restartMaxPartitions = Integer.getInteger("bench.restart.max.partitions", 2);
+	private final int commitInterval = Integer.getInteger("bench.commit.interval", 1000);
+	private final int warmup = Integer.getInteger("bench.warmup", 1);
+	private final int runs = Integer.getInteger("bench.runs", 3);
+
+	private final File inputFile;
+	private final File outputDir;
+
+	public FileEtlDriver(PrintStream out, File dir) {
+		this.out = out;
+		inputFile = new File(dir, "input.dat");
+		outputDir = new File(dir, "output");
+	}
+
+	public static void main(String[] args) throws Exception {
+		String dirName = System.getProperty("bench.dir");
+		File dir;
+		if (dirName == null || dirName.isEmpty()) {
+			dir = File.createTempFile("bench_file_etl", "");
+			if (!dir.delete() || !dir.mkdir()) {
+				throw new IOException("Couldn't create directory " + dir);
+			}
+		} else {
+			dir = new File(dirName);
+		}
+
+		FileEtlDriver driver = new FileEtlDriver(System.out, dir);
+		try {
+			driver.generate();
+			driver.out.println(HEADER);
+			driver.runToCompletion();
+			driver.stopAndRestart(false);
+			driver.stopAndRestart(true);
+		} finally {
+			if (dirName == null || dirName.isEmpty()) {
+				driver.deleteFiles();
+			}
+		}
+	}
+
+	public void generate() throws Exception {
+		if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+			throw new IOException("Couldn't create directory " + outputDir);
+		}
+		Properties jobParameters = new Properties();
+		jobParameters.setProperty("input.file", inputFile.getPath());
+		jobParameters.setProperty("record.count", String.valueOf(records));
+		jobParameters.setProperty("record.size", String.valueOf(recordSize));
+		runner.runToCompletion(GENERATE_JOB, jobParameters);
+	}
+
+	public void runToCompletion() throws Exception {
+		Properties jobParameters = jobParameters(maxPartitions, false);
+		for (int i = 0; i < warmup; i++) {
+			verify(runner.runToCompletion(ETL_JOB, jobParameters));
+		}
+		List<JobExecution> measured = new ArrayList<JobExecution>();
+		for (int i = 0; i < runs; i++) {
+			JobExecution execution = runner.runToCompletion(ETL_JOB, jobParameters);
+			verify(execution);
+			measured.add(execution);
+		}
+		Collections.sort(measured, new Comparator<JobExecution>() {
+			@Override
+			public int compare(JobExecution e1, JobExecution e2) {
+				long wall1 = wallMillis(e1);
+				long wall2 = wallMillis(e2);
+				return wall1 < wall2 ? -1 : (wall1 == wall2 ? 0 : 1);
+			}
+		});
+		print("complete", measured.get(measured.size() / 2));
+	}
+
+	/**
+	 * Stops the copy once some output has been written, then restarts it.
+	 * 
+	 * @param override Whether the restart makes a new plan, with bench.restart.max.partitions rather than bench.max.partitions
+	 */
+	public void stopAndRestart(boolean override) throws Exception {
+		if (override && restartMaxPartitions >= maxPartitions) {
+			throw new IllegalArgumentException("bench.restart.max.partitions must be less than bench.max.partitions, or no part files are left over");
+		}
+		// So the output of an earlier run isn't taken for this one's
+		deletePartFiles();
+		JobOperator jobOp = runner.getJobOperator();
+		long executionId = jobOp.start(ETL_JOB, jobParameters(maxPartitions, false));
+		awaitOutput(executionId);
+		jobOp.stop(executionId);
+		JobExecution stopped = runner.await(executionId);
+		if (stopped.getBatchStatus() != BatchStatus.STOPPED) {
+			throw new IllegalStateException("Expected execution " + executionId + " to stop, but batch status = " 
+					+ stopped.getBatchStatus() + "; try more records");
+		}
+		KeyRangePlan stoppedPlan = getPlan(executionId);
+
+		JobExecution restarted = runner.restartToCompletion(executionId, jobParameters(override ? restartMaxPartitions : maxPartitions, override));
+		KeyRangePlan restartedPlan = verify(restarted);
+		if (override && restartedPlan.getPartitions() >= stoppedPlan.getPartitions()) {
+			throw new IllegalStateException("Expected the override restart to plan fewer partitions than " + stoppedPlan + ", but it planned " + restartedPlan);
+		}
+		print(override ? "restartOverride" : "restart", restarted);
+	}
+
+	private Properties jobParameters(int partitionLimit, boolean override) {
+		Properties jobParameters = new Properties();
+		jobParameters.setProperty("input.file", inputFile.getPath());
+		jobParameters.setProperty("output.dir", outputDir.getPath());
+		jobParameters.setProperty("min.partition.size", String.valueOf(minPartitionSize));
+		// Enough per core that max.partitions, not the core count, is the limit
+		jobParameters.setProperty("partitions.per.core", String.valueOf(Math.max(maxPartitions, restartMaxPartitions)));
+		jobParameters.setProperty("max.partitions", String.valueOf(partitionLimit));
+		jobParameters.setProperty("partitionsOverride", String.valueOf(override));
+		jobParameters.setProperty("commit.interval", String.valueOf(commitInterval));
+		return jobParameters;
+	}
+
+	private void awaitOutput(long executionId) throws InterruptedException {
+		JobOperator jobOp = runner.getJobOperator();
+		while (true) {
+			File[] parts = getPartFiles();
+			for (File part : parts) {
+				if (part.length() > 0) {
+					return;
+				}
+			}
+			BatchStatus status = jobOp.getJobExecution(executionId).getBatchStatus();
+			if (status != BatchStatus.STARTING && status != BatchStatus.STARTED) {
+				throw new IllegalStateException("Execution " + executionId + " ended with batch status = " + status 
+						+ " before writing any output");
+			}
+			Thread.sleep(10);
+		}
+	}
+
+	/**
+	 * @return The plan of the completed copy
+	 * @throws IllegalStateException If the part files aren't a copy of the input
+	 */
+	private KeyRangePlan verify(JobExecution execution) throws IOException {
+		KeyRangePlan plan = getPlan(execution.getExecutionId());
+		File[] parts = getPartFiles();
+		if (parts.length != plan.getPartitions()) {
+			throw new IllegalStateException("Expected " + plan.getPartitions() + " part files in " + outputDir + " for " + plan 
+					+ ", but found " + parts.length);
+		}
+		InputStream expected = new BufferedInputStream(new FileInputStream(inputFile));
+		try {
+			long offset = 0;
+			for (int i = 0; i < parts.length; i++) {
+				File part = new File(outputDir, "part-" + i + ".dat");
+				InputStream actual = new BufferedInputStream(new FileInputStream(part));
+				try {
+					for (int b = actual.read(); b != -1; b = actual.read()) {
+						if (b != expected.read()) {
+							throw new IllegalStateException("Output differs from " + inputFile + " at offset " + offset + ", in " + part);
+						}
+						offset++;
+					}
+				} finally {
+					actual.close();
+				}
+			}
+			if (expected.read() != -1) {
+				throw new IllegalStateException("Output is only the first " + offset + " bytes of " + inputFile);
+			}
+		} finally {
+			expected.close();
+		}
+		return plan;
+	}
+
+	private KeyRangePlan getPlan(long executionId) {
+		// bench_file_etl has the one step
+		StepExecution step = runner.getJobOperator().getStepExecutions(executionId).get(0);
+		if (!(step.getPersistentUserData() instanceof KeyRangePlan)) {
+			throw new IllegalStateException("Step execution " + step.getStepExecutionId() + " has no KeyRangePlan in its persistent user data: " 
+					+ step.getPersistentUserData());
+		}
+		return (KeyRangePlan) step.getPersistentUserData();
+	}
+
+	private File[] getPartFiles() {
+		File[] parts = outputDir.listFiles(new FilenameFilter() {
+			@Override
+			public boolean accept(File dir, String name) {
+				return name.matches("part-[0-9]+\\.dat");
+			}
+		});
+		return parts == null ? new File[0] : parts;
+	}
+
+	private void deletePartFiles() throws IOException {
+		for (File part : getPartFiles()) {
+			if (!part.delete()) {
+				throw new IOException("Couldn't delete " + part);
+			}
+		}
+	}
+
+	private void deleteFiles() throws IOException {
+		deletePartFiles();
+		outputDir.delete();
+		inputFile.delete();
+		inputFile.getParentFile().delete();
+	}
+
+	private void print(String run, JobExecution execution) {
+		KeyRangePlan plan = getPlan(execution.getExecutionId());
+		long wallMillis = wallMillis(execution);
+		double inputMB = inputFile.length() / (1024.0 * 1024.0);
+		out.println(run + "," + plan.getPartitions() + "," + format(inputMB) + "," + wallMillis + "," 
+				+ format(wallMillis == 0 ? 0 : inputMB * 1000 / wallMillis));
+		out.flush();
+	}
+
+	private static long wallMillis(JobExecution execution) {
+		return execution.getEndTime().getTime() - execution.getStartTime().getTime();
+	}
+
+	private static String format(double d) {
+		// Not the default locale, which could use commas
+		return String.format(Locale.ROOT, "%.3f", d);
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.bench;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.StepExecution;
+
+/**
+ * Runs bench_listener_overhead, the null workload chunk step with no listeners ("none") and then with 1, 5 and 20 
+ * read, process, write and chunk listeners, with no-op and then allocating listeners, printing one CSV line per 
+ * step: how much each step's median wall time exceeds that of the step with no listeners, per item and per 
+ * listener.
+ *
+ * Each listener is called twice per item (or, for chunk listeners, per chunk), so the per listener overhead of a 
+ * runtime that simply calls its listeners should stay flat as the count grows; one that looks listeners up or 
+ * proxies them on every call shows up as a much larger, or growing, per listener figure.
+ *
+ * System properties (defaults in parentheses):
+ * <ul>
+ * <li>bench.allocate - listener variants to run, "false" for no-op and "true" for allocating (false,true)
+ * <li>bench.items - items per step (1000000)
+ * <li>bench.commit.interval - (100)
+ * <li>bench.warmup - unmeasured runs of the job for each variant (2)
+ * <li>bench.runs - measured runs of the job for each variant, of which the median of each step is reported (5)
+ * </ul>
+ */
+public class ListenerOverheadDriver {
+
+	private static final String JOB_NAME = "bench_listener_overhead";
+	private static final String BASELINE_STEP = "none";
+
+	private static final String HEADER = "allocate,step,listeners,stepMs,overheadNsPerItem,overheadNsPerItemPerListener";
+
+	private final BenchmarkJobRunner runner = new BenchmarkJobRunner();
+	private final PrintStream out;
+
+	private final int items = Integer.getInteger("bench.items", 1000000);
+	private final int commitInterval = Integer.getInteger("bench.commit.interval", 100);
+	private final int warmup = Integer.getInteger("bench.warmup", 2);
+	private final int runs = Integer.getInteger("bench.runs", 5);
+
+	public ListenerOverheadDriver(PrintStream out) {
+		this.out = out;
+	}
+
+	public static void main(String[] args) throws Exception {
+		String[] variants = System.getProperty("bench.allocate", "false,true").split(",");
+
+		ListenerOverheadDriver driver = new ListenerOverheadDriver(System.out);
+		driver.out.println(HEADER);
+		for (String allocate : variants) {
+			driver.report(allocate.trim());
+		}
+	}
+
+	public void report(String allocate) throws Exception {
+		Map<String, Long> medians = measure(allocate);
+		long baseline = medians.get(BASELINE_STEP);
+		for (Map.Entry<String, Long> entry : medians.entrySet()) {
+			String step = entry.getKey();
+			int listeners = listenerCount(step);
+			double overheadNanos = (entry.getValue() - baseline) * 1000000.0 / items;
+			out.println(allocate + "," + step + "," + listeners + "," + entry.getValue() + "," + format(overheadNanos) + ","
+					+ format(listeners == 0 ? 0 : overheadNanos / listeners));
+		}
+		out.flush();
+	}
+
+	/**
+	 * @param step E.g. "read20"
+	 * @return E.g. 20
+	 */
+	private static int listenerCount(String step) {
+		int i = step.length();
+		while (i > 0 && Character.isDigit(step.charAt(i - 1))) {
+			i--;
+		}
+		return i == step.length() ? 0 : Integer.parseInt(step.substring(i));
+	}
+
+	/**
+	 * @return The median wall time of each step, in msec, in step order
+	 */
+	private Map<String, Long> measure(String allocate) throws Exception {
+		Properties jobParameters = new Properties();
+		jobParameters.setProperty("item.count", String.valueOf(items));
+		jobParameters.setProperty("commit.interval", String.valueOf(commitInterval));
+		jobParameters.setProperty("allocate", allocate);
+
+		for (int i = 0; i < warmup; i++) {
+			runner.runToCompletion(JOB_NAME, jobParameters);
+		}
+		Map<String, List<Long>> stepTimes = new LinkedHashMap<String, List<Long>>();
+		for (int i = 0; i < runs; i++) {
+			JobExecution execution = runner.runToCompletion(JOB_NAME, jobParameters);
+			for (StepExecution stepExecution : runner.getJobOperator().getStepExecutions(execution.getExecutionId())) {
+				List<Long> times = stepTimes.get(stepExecution.getStepName());
+				if (times == null) {
+					times = new ArrayList<Long>();
+					stepTimes.put(stepExecution.getStepName(), times);
+				}
+				times.add(stepExecution.getEndTime().getTime() - stepExecution.getStartTime().getTime());
+			}
+		}
+		Map<String, Long> medians = new LinkedHashMap<String, Long>();
+		for (Map.Entry<String, List<Long>> entry : stepTimes.entrySet()) {
+			List<Long> times = entry.getValue();
+			Collections.sort(times);
+			medians.put(entry.getKey(), times.get(times.size() / 2));
+		}
+		return medians;
+	}
+
+	private static String format(double d) {
+		// Not the default locale, which could use commas
+		return String.format(Locale.ROOT, "%.3f", d);
+	}
+}
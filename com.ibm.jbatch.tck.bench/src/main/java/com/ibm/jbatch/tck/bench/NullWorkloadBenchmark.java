@@ -0,0 +1,75 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.bench;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.batch.runtime.JobExecution;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs bench_chunk_null.xml (NullItemReader, NullItemProcessor and NullItemWriter, which neither allocate nor 
+ * log per item) end to end, reporting jobs/sec and, through ItemCounters, items/sec: the runtime's own chunk 
+ * loop, transaction and checkpoint overhead, with no artifact cost mixed in.
+ *
+ * Override the parameters on the command line, e.g. -p itemCount=1000000 -p commitInterval=1,1000
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NullWorkloadBenchmark {
+
+	@Param({"10000", "100000"})
+	public int itemCount;
+
+	@Param({"1", "10", "100", "1000"})
+	public int commitInterval;
+
+	private BenchmarkJobRunner runner;
+	private Properties jobParameters;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		runner = new BenchmarkJobRunner();
+		jobParameters = new Properties();
+		jobParameters.setProperty("item.count", String.valueOf(itemCount));
+		jobParameters.setProperty("commit.interval", String.valueOf(commitInterval));
+	}
+
+	@Benchmark
+	public JobExecution nullChunk(ItemCounters counters) throws Exception {
+		JobExecution execution = runner.runToCompletion("bench_chunk_null", jobParameters);
+		counters.items += itemCount;
+		return execution;
+	}
+}
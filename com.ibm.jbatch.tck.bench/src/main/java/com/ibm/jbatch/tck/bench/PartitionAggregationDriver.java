@@ -0,0 +1,156 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.bench;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.StepExecution;
+
+import com.ibm.jbatch.tck.artifacts.bench.PartitionAggregateStats;
+
+/**
+ * Sweeps sketch precision (and so collector payload size) and partition count over bench_partition_aggregate,
+ * in which every partition's collector sends a summary of what it wrote after each chunk and the analyzer merges 
+ * them, printing one CSV line per combination.
+ *
+ * The total item count is fixed and divided among the partitions, so the number of collector messages stays 
+ * about the same while the payload grows with the precision: wall time rising with the payload size is the cost 
+ * of the collector to analyzer traffic.  Each run is also checked for a merged item count equal to the total 
+ * written, and the distinct-value estimate is reported against the expected value.
+ *
+ * System properties (defaults in parentheses):
+ * <ul>
+ * <li>bench.hll.precisions - sketch precisions to sweep, from 4 to 16; the payload carries 2^precision bytes of sketch (4,8,12,16)
+ * <li>bench.partitions - partition counts to sweep (1,4,16,64)
+ * <li>bench.items - total items written (102400)
+ * <li>bench.commit.interval - and so how often each partition's collector is called (10)
+ * <li>bench.distinct.values - range the written values are drawn from (10000)
+ * <li>bench.warmup - unmeasured runs of each combination (2)
+ * <li>bench.runs - measured runs of each combination, of which the median (by wall time) is reported (5)
+ * </ul>
+ *
+ * The transit times are System.nanoTime() based, so only meaningful when partitions run in the driver's JVM.
+ */
+public class PartitionAggregationDriver {
+
+	private static final String JOB_NAME = "bench_partition_aggregate";
+
+	private static final String HEADER = "partitions,precision,sketchBytes,wallMs,collectorMessages,avgTransitUs,maxTransitUs,avgMergeUs,"
+			+ "expectedDistinct,distinctEstimate,distinctErrorPct";
+
+	private final BenchmarkJobRunner runner = new BenchmarkJobRunner();
+	private final PrintStream out;
+
+	private final int items = Integer.getInteger("bench.items", 102400);
+	private final int commitInterval = Integer.getInteger("bench.commit.interval", 10);
+	private final long distinctValues = Long.getLong("bench.distinct.values", 10000L);
+	private final int warmup = Integer.getInteger("bench.warmup", 2);
+	private final int runs = Integer.getInteger("bench.runs", 5);
+
+	public PartitionAggregationDriver(PrintStream out) {
+		this.out = out;
+	}
+
+	public static void main(String[] args) throws Exception {
+		int[] precisions = parseInts(System.getProperty("bench.hll.precisions", "4,8,12,16"));
+		int[] partitionCounts = parseInts(System.getProperty("bench.partitions", "1,4,16,64"));
+
+		PartitionAggregationDriver driver = new PartitionAggregationDriver(System.out);
+		driver.out.println(HEADER);
+		for (int partitions : partitionCounts) {
+			for (int precision : precisions) {
+				driver.report(partitions, precision);
+			}
+		}
+	}
+
+	private static int[] parseInts(String list) {
+		String[] values = list.split(",");
+		int[] ints = new int[values.length];
+		for (int i = 0; i < values.length; i++) {
+			ints[i] = Integer.parseInt(values[i].trim());
+		}
+		return ints;
+	}
+
+	public void report(int partitions, int precision) throws Exception {
+		Run run = measure(partitions, precision);
+		PartitionAggregateStats stats = run.stats;
+		// Values are drawn uniformly at random, so this many are expected to turn up at least once
+		long totalItems = (long) (items / partitions) * partitions;
+		double expectedDistinct = distinctValues * (1 - Math.pow(1 - 1.0 / distinctValues, totalItems));
+		out.println(partitions + "," + precision + "," + (1 << precision) + "," + run.wallMillis + "," + stats.getSummaries() + ","
+				+ format(stats.getAverageTransitNanos() / 1000) + "," + format(stats.getMaxTransitNanos() / 1000.0) + ","
+				+ format(stats.getAverageMergeNanos() / 1000) + "," + format(expectedDistinct) + "," + stats.getDistinctEstimate() + ","
+				+ format(100 * (stats.getDistinctEstimate() - expectedDistinct) / expectedDistinct));
+		out.flush();
+	}
+
+	private Run measure(int partitions, int precision) throws Exception {
+		int itemsPerPartition = items / partitions;
+		Properties jobParameters = new Properties();
+		jobParameters.setProperty("numPartitionsProp", String.valueOf(partitions));
+		jobParameters.setProperty("item.count", String.valueOf(itemsPerPartition));
+		jobParameters.setProperty("commit.interval", String.valueOf(commitInterval));
+		jobParameters.setProperty("distinct.values", String.valueOf(distinctValues));
+		jobParameters.setProperty("hll.precision", String.valueOf(precision));
+
+		for (int i = 0; i < warmup; i++) {
+			runner.runToCompletion(JOB_NAME, jobParameters);
+		}
+		List<Run> measured = new ArrayList<Run>();
+		for (int i = 0; i < runs; i++) {
+			JobExecution execution = runner.runToCompletion(JOB_NAME, jobParameters);
+			StepExecution stepExecution = runner.getJobOperator().getStepExecutions(execution.getExecutionId()).get(0);
+			PartitionAggregateStats stats = (PartitionAggregateStats) stepExecution.getPersistentUserData();
+			if (stats.getCount() != (long) itemsPerPartition * partitions) {
+				throw new IllegalStateException("Analyzer merged " + stats.getCount() + " items, but " + (long) itemsPerPartition * partitions 
+						+ " were written; " + stats);
+			}
+			measured.add(new Run(stepExecution.getEndTime().getTime() - stepExecution.getStartTime().getTime(), stats));
+		}
+		Collections.sort(measured, new Comparator<Run>() {
+			@Override
+			public int compare(Run r1, Run r2) {
+				return r1.wallMillis < r2.wallMillis ? -1 : (r1.wallMillis == r2.wallMillis ? 0 : 1);
+			}
+		});
+		return measured.get(measured.size() / 2);
+	}
+
+	private static String format(double d) {
+		// Not the default locale, which could use commas
+		return String.format(Locale.ROOT, "%.3f", d);
+	}
+
+	private static class Run {
+		private final long wallMillis;
+		private final PartitionAggregateStats stats;
+
+		private Run(long wallMillis, PartitionAggregateStats stats) {
+			this.wallMillis = wallMillis;
+			this.stats = stats;
+		}
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.bench;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.StepExecution;
+
+import com.ibm.jbatch.tck.artifacts.bench.PartitionScalingStats;
+
+/**
+ * Sweeps partition and thread counts over a partitioned, CPU-bound batchlet step (bench_partition_batchlet)
+ * and chunk step (bench_partition_chunk), printing one CSV line per combination: the scaling curve.
+ *
+ * The total work is fixed and divided among the partitions, so on a runtime that scales perfectly 
+ * the step wall time falls with the partition count until the cores run out, then levels off.  
+ * Where it starts climbing instead is where partition dispatch, or the collector/analyzer traffic, 
+ * stops scaling.
+ *
+ * Run with e.g.
+ * <pre>
+ * java -Dbench.partitions=1,2,4,8 -Dbench.threads=0,2 -cp benchmarks.jar com.ibm.jbatch.tck.bench.PartitionScalingDriver
+ * </pre>
+ * 
+ * System properties (defaults in parentheses):
+ * <ul>
+ * <li>bench.partitions - partition counts to sweep (1,2,4,...,256)
+ * <li>bench.threads - thread counts to sweep, 0 meaning one per partition (0).  Counts higher than the partition count are skipped.
+ * <li>bench.steps - "batchlet" and/or "chunk" (batchlet,chunk)
+ * <li>bench.work.units - total CPU work, see CpuWork (200000000)
+ * <li>bench.items - total items for the chunk step (25600)
+ * <li>bench.commit.interval - chunk step commit interval, and so how often each partition's collector is called (10)
+ * <li>bench.warmup - unmeasured runs of each combination (2)
+ * <li>bench.runs - measured runs of each combination, of which the median (by wall time) is reported (5)
+ * </ul>
+ * 
+ * The partition timings are System.nanoTime() based, so only meaningful when partitions run in the driver's JVM.
+ */
+public class PartitionScalingDriver {
+
+	private static final String HEADER = "step,partitions,threads,wallMs,speedup,avgPartitionBusyMs,maxPartitionBusyMs,busySkew,startSpreadMs,"
+			+ "collectorMessages,avgCollectorUs,maxCollectorUs";
+
+	private final BenchmarkJobRunner runner = new BenchmarkJobRunner();
+	private final PrintStream out;
+
+	private final long workUnits = Long.getLong("bench.work.units", 200000000L);
+	private final int items = Integer.getInteger("bench.items", 25600);
+	private final int commitInterval = Integer.getInteger("bench.commit.interval", 10);
+	private final int warmup = Integer.getInteger("bench.warmup", 2);
+	private final int runs = Integer.getInteger("bench.runs", 5);
+
+	public PartitionScalingDriver(PrintStream out) {
+		this.out = out;
+	}
+
+	public static void main(String[] args) throws Exception {
+		int[] partitionCounts = parseInts(System.getProperty("bench.partitions", "1,2,4,8,16,32,64,128,256"));
+		int[] threadCounts = parseInts(System.getProperty("bench.threads", "0"));
+		String[] steps = System.getProperty("bench.steps", "batchlet,chunk").split(",");
+
+		PartitionScalingDriver driver = new PartitionScalingDriver(System.out);
+		driver.out.println(HEADER);
+		for (String step : steps) {
+			for (int threads : threadCounts) {
+				driver.sweep(step.trim(), partitionCounts, threads);
+			}
+		}
+	}
+
+	private static int[] parseInts(String list) {
+		String[] values = list.split(",");
+		int[] ints = new int[values.length];
+		for (int i = 0; i < values.length; i++) {
+			ints[i] = Integer.parseInt(values[i].trim());
+		}
+		return ints;
+	}
+
+	/**
+	 * Speedup is relative to the first partition count in the sweep.
+	 */
+	public void sweep(String step, int[] partitionCounts, int threads) throws Exception {
+		long baseline = -1;
+		for (int partitions : partitionCounts) {
+			if (threads > partitions) {
+				continue;
+			}
+			Run run = measure(step, partitions, threads);
+			if (baseline < 0) {
+				baseline = run.wallMillis;
+			}
+			PartitionScalingStats stats = run.stats;
+			out.println(step + "," + partitions + "," + (threads == 0 ? partitions : threads) + "," + run.wallMillis + ","
+					+ format(run.wallMillis == 0 ? 0 : (double) baseline / run.wallMillis) + ","
+					+ format(stats.getAverageBusyNanos() / 1000000) + "," + format(stats.getMaxBusyNanos() / 1000000.0) + ","
+					+ format(stats.getBusySkew()) + "," + format(stats.getStartSpreadNanos() / 1000000.0) + ","
+					+ stats.getCollectorMessages() + "," + format(stats.getAverageCollectorNanos() / 1000) + ","
+					+ format(stats.getMaxCollectorNanos() / 1000.0));
+			out.flush();
+		}
+	}
+
+	private Run measure(String step, int partitions, int threads) throws Exception {
+		Properties jobParameters = new Properties();
+		jobParameters.setProperty("numPartitionsProp", String.valueOf(partitions));
+		jobParameters.setProperty("numThreadsProp", String.valueOf(threads));
+		String jobName;
+		if ("batchlet".equals(step)) {
+			jobName = "bench_partition_batchlet";
+			jobParameters.setProperty("work.units", String.valueOf(workUnits / partitions));
+		} else if ("chunk".equals(step)) {
+			jobName = "bench_partition_chunk";
+			jobParameters.setProperty("item.count", String.valueOf(items / partitions));
+			jobParameters.setProperty("commit.interval", String.valueOf(commitInterval));
+			jobParameters.setProperty("work.units", String.valueOf(workUnits / items));
+		} else {
+			throw new IllegalArgumentException("Unknown step type: " + step + ", expected batchlet or chunk");
+		}
+
+		for (int i = 0; i < warmup; i++) {
+			runner.runToCompletion(jobName, jobParameters);
+		}
+		List<Run> measured = new ArrayList<Run>();
+		for (int i = 0; i < runs; i++) {
+			JobExecution execution = runner.runToCompletion(jobName, jobParameters);
+			StepExecution stepExecution = runner.getJobOperator().getStepExecutions(execution.getExecutionId()).get(0);
+			measured.add(new Run(stepExecution.getEndTime().getTime() - stepExecution.getStartTime().getTime(),
+					(PartitionScalingStats) stepExecution.getPersistentUserData()));
+		}
+		Collections.sort(measured, new Comparator<Run>() {
+			@Override
+			public int compare(Run r1, Run r2) {
+				return r1.wallMillis < r2.wallMillis ? -1 : (r1.wallMillis == r2.wallMillis ? 0 : 1);
+			}
+		});
+		return measured.get(measured.size() / 2);
+	}
+
+	private static String format(double d) {
+		// Not the default locale, which could use commas
+		return String.format(Locale.ROOT, "%.3f", d);
+	}
+
+	private static class Run {
+		private final long wallMillis;
+		private final PartitionScalingStats stats;
+
+		private Run(long wallMillis, PartitionScalingStats stats) {
+			this.wallMillis = wallMillis;
+			this.stats = stats;
+		}
+	}
+}
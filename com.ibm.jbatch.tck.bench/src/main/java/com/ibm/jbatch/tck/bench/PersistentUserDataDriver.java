@@ -0,0 +1,195 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.bench;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.StepExecution;
+
+import com.ibm.jbatch.tck.artifacts.bench.PersistentUserDataPayload;
+
+/**
+ * Sweeps persistent user data sizes and partition counts over bench_persistent_user_data (three partitioned
+ * chunk steps, each partition replacing its persistent user data after every chunk), printing one CSV line per
+ * combination.
+ *
+ * For each, the job is run once to completion, counting how often the runtime serializes the persistent user data
+ * against the expected count of one per checkpoint (i.e. per chunk) plus one at the end of each partition's step,
+ * and then once failing in the last step and restarted, timing the restart and how long it spends hydrating the 
+ * persistent user data.  Step wall times are also compared with those of the first size in the sweep (normally 
+ * 0 bytes), to show any cost not spent in serialization itself.
+ *
+ * System properties (defaults in parentheses):
+ * <ul>
+ * <li>bench.pud.bytes - persistent user data sizes to sweep (0,64,1024,65536,1048576,4194304)
+ * <li>bench.partitions - partition counts to sweep (1,8)
+ * <li>bench.items - items read per partition per step (1000)
+ * <li>bench.commit.interval - (10)
+ * <li>bench.fail.after.chunks - chunks after which the last step fails, before the restart (50)
+ * <li>bench.warmup - unmeasured runs of each combination (1)
+ * <li>bench.runs - measured runs of each combination, of which the median (by job wall time) is reported (3)
+ * </ul>
+ *
+ * The serialization counts are kept by PersistentUserDataPayload in static fields, so the runtime must run in the
+ * driver's JVM.
+ */
+public class PersistentUserDataDriver {
+
+	private static final String JOB_NAME = "bench_persistent_user_data";
+	private static final int STEPS = 3;
+
+	private static final String HEADER = "pudBytes,partitions,chunks,jobWallMs,avgStepWallMs,stepWallDeltaMs,serializations,expectedSerializations,"
+			+ "extraSerializations,serializationsPerChunk,serializedMB,serializeMs,restartWallMs,deserializations,deserializeMs";
+
+	private final BenchmarkJobRunner runner = new BenchmarkJobRunner();
+	private final PrintStream out;
+
+	private final int items = Integer.getInteger("bench.items", 1000);
+	private final int commitInterval = Integer.getInteger("bench.commit.interval", 10);
+	private final int failAfterChunks = Integer.getInteger("bench.fail.after.chunks", 50);
+	private final int warmup = Integer.getInteger("bench.warmup", 1);
+	private final int runs = Integer.getInteger("bench.runs", 3);
+
+	public PersistentUserDataDriver(PrintStream out) {
+		this.out = out;
+	}
+
+	public static void main(String[] args) throws Exception {
+		int[] sizes = parseInts(System.getProperty("bench.pud.bytes", "0,64,1024,65536,1048576,4194304"));
+		int[] partitionCounts = parseInts(System.getProperty("bench.partitions", "1,8"));
+
+		PersistentUserDataDriver driver = new PersistentUserDataDriver(System.out);
+		driver.out.println(HEADER);
+		for (int partitions : partitionCounts) {
+			driver.sweep(sizes, partitions);
+		}
+	}
+
+	private static int[] parseInts(String list) {
+		String[] values = list.split(",");
+		int[] ints = new int[values.length];
+		for (int i = 0; i < values.length; i++) {
+			ints[i] = Integer.parseInt(values[i].trim());
+		}
+		return ints;
+	}
+
+	public void sweep(int[] sizes, int partitions) throws Exception {
+		long chunks = (long) STEPS * partitions * ((items + commitInterval - 1) / commitInterval);
+		// One with each chunk's checkpoint, and one more as each partition's step ends
+		long expectedSerializations = chunks + (long) STEPS * partitions;
+		double baselineStepWall = -1;
+		for (int size : sizes) {
+			Run run = measure(size, partitions);
+			if (baselineStepWall < 0) {
+				baselineStepWall = run.avgStepWallMillis;
+			}
+			out.println(size + "," + partitions + "," + chunks + "," + run.jobWallMillis + "," + format(run.avgStepWallMillis) + ","
+					+ format(run.avgStepWallMillis - baselineStepWall) + "," + run.serializations + "," 
+					+ expectedSerializations + "," + (run.serializations - expectedSerializations) + ","
+					+ format((double) run.serializations / chunks) + "," + format(run.serializedBytes / (1024.0 * 1024.0)) + "," 
+					+ format(run.serializationNanos / 1000000.0) + "," + run.restartWallMillis + "," + run.deserializations + "," 
+					+ format(run.deserializationNanos / 1000000.0));
+			out.flush();
+		}
+	}
+
+	private Run measure(int size, int partitions) throws Exception {
+		Properties jobParameters = new Properties();
+		jobParameters.setProperty("pud.bytes", String.valueOf(size));
+		jobParameters.setProperty("numPartitionsProp", String.valueOf(partitions));
+		jobParameters.setProperty("item.count", String.valueOf(items));
+		jobParameters.setProperty("commit.interval", String.valueOf(commitInterval));
+		jobParameters.setProperty("fail.after.chunks", "0");
+
+		Properties failingParameters = new Properties();
+		failingParameters.putAll(jobParameters);
+		failingParameters.setProperty("fail.after.chunks", String.valueOf(failAfterChunks));
+
+		for (int i = 0; i < warmup; i++) {
+			runOnce(jobParameters, failingParameters);
+		}
+		List<Run> measured = new ArrayList<Run>();
+		for (int i = 0; i < runs; i++) {
+			measured.add(runOnce(jobParameters, failingParameters));
+		}
+		Collections.sort(measured, new Comparator<Run>() {
+			@Override
+			public int compare(Run r1, Run r2) {
+				return r1.jobWallMillis < r2.jobWallMillis ? -1 : (r1.jobWallMillis == r2.jobWallMillis ? 0 : 1);
+			}
+		});
+		return measured.get(measured.size() / 2);
+	}
+
+	private Run runOnce(Properties jobParameters, Properties failingParameters) throws Exception {
+		Run run = new Run();
+
+		PersistentUserDataPayload.resetCounts();
+		JobExecution execution = runner.runToCompletion(JOB_NAME, jobParameters);
+		run.serializations = PersistentUserDataPayload.getSerializations();
+		run.serializedBytes = PersistentUserDataPayload.getSerializedBytes();
+		run.serializationNanos = PersistentUserDataPayload.getSerializationNanos();
+		run.jobWallMillis = wallMillis(execution);
+		long totalStepWall = 0;
+		List<StepExecution> steps = runner.getJobOperator().getStepExecutions(execution.getExecutionId());
+		for (StepExecution step : steps) {
+			totalStepWall += step.getEndTime().getTime() - step.getStartTime().getTime();
+		}
+		run.avgStepWallMillis = steps.isEmpty() ? 0 : (double) totalStepWall / steps.size();
+
+		JobExecution failed = runner.run(JOB_NAME, failingParameters);
+		if (failed.getBatchStatus() != BatchStatus.FAILED) {
+			throw new IllegalStateException("Expected execution " + failed.getExecutionId() + " to fail, but batch status = " + failed.getBatchStatus());
+		}
+		PersistentUserDataPayload.resetCounts();
+		JobExecution restarted = runner.restartToCompletion(failed.getExecutionId(), jobParameters);
+		run.restartWallMillis = wallMillis(restarted);
+		run.deserializations = PersistentUserDataPayload.getDeserializations();
+		run.deserializationNanos = PersistentUserDataPayload.getDeserializationNanos();
+
+		return run;
+	}
+
+	private static long wallMillis(JobExecution execution) {
+		return execution.getEndTime().getTime() - execution.getStartTime().getTime();
+	}
+
+	private static String format(double d) {
+		// Not the default locale, which could use commas
+		return String.format(Locale.ROOT, "%.3f", d);
+	}
+
+	private static class Run {
+		private long jobWallMillis;
+		private double avgStepWallMillis;
+		private long serializations;
+		private long serializedBytes;
+		private long serializationNanos;
+		private long restartWallMillis;
+		private long deserializations;
+		private long deserializationNanos;
+	}
+}
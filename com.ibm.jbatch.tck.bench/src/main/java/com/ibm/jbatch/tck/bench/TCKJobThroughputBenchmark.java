@@ -0,0 +1,90 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.bench;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.batch.runtime.JobExecution;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs some of the TCK's own chunk jobs end to end, with the same job parameters as the
+ * tests that expect them to complete (but without any sleeps), reporting jobs/sec and,
+ * through ItemCounters, items/sec.
+ *
+ * These jobs only process a handful of items (the array artifacts are fixed at 30), so this 
+ * mostly measures per-job and per-chunk overhead; use ChunkThroughputBenchmark for larger volumes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 10, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TCKJobThroughputBenchmark {
+
+	@Param({"job_chunk_simple", "chunksize5commitinterval5", "chunkTimeBasedCheckpoint"})
+	public String jobName;
+
+	private BenchmarkJobRunner runner;
+	private Properties jobParameters;
+	private int itemCount;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		runner = new BenchmarkJobRunner();
+		jobParameters = new Properties();
+		if ("job_chunk_simple".equals(jobName)) {
+			// DoSomethingItemReaderImpl always reads 9 items
+			itemCount = 9;
+		} else if ("chunksize5commitinterval5".equals(jobName)) {
+			jobParameters.setProperty("execution.number", "1");
+			jobParameters.setProperty("readrecord.fail", "31");
+			jobParameters.setProperty("app.arraysize", "30");
+			jobParameters.setProperty("app.writepoints", "0,5,10,15,20,25,30");
+			itemCount = 30;
+		} else if ("chunkTimeBasedCheckpoint".equals(jobName)) {
+			jobParameters.setProperty("execution.number", "1");
+			jobParameters.setProperty("readrecord.fail", "31");
+			jobParameters.setProperty("app.arraysize", "30");
+			jobParameters.setProperty("app.sleeptime", "0");
+			itemCount = 30;
+		} else {
+			throw new IllegalArgumentException("No job parameters known for job: " + jobName);
+		}
+	}
+
+	@Benchmark
+	public JobExecution tckJob(ItemCounters counters) throws Exception {
+		JobExecution execution = runner.runToCompletion(jobName, jobParameters);
+		counters.items += itemCount;
+		return execution;
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.bench;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * An int checkpoint like ArrayIndexCheckpointData, but written with CheckpointCodec, for comparing 
+ * the serialized sizes in CheckpointSizeBenchmark.  The TCK's own checkpoint types keep their format.
+ */
+public class VarIntCheckpointData implements Externalizable {
+
+	private final static long serialVersionUID = 1L;
+
+	private int value;
+
+	public VarIntCheckpointData() {
+	}
+
+	public VarIntCheckpointData(int value) {
+		this.value = value;
+	}
+
+	@Override
+	public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+		value = CheckpointCodec.readVarInt(in);
+	}
+
+	@Override
+	public void writeExternal(ObjectOutput out) throws IOException {
+		CheckpointCodec.writeVarInt(out, value);
+	}
+
+	public int getValue() {
+		return value;
+	}
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.bench;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.batch.runtime.context.StepContext;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Copies files through MappedFileItemReader and ChannelFileItemWriter the way bench_file_etl's partitions do,
+ * without a batch runtime.
+ */
+public class FileCopyArtifactsTest {
+
+	private File dir;
+	private File input;
+	private byte[] inputBytes;
+
+	@Before
+	public void createInput() throws IOException {
+		dir = File.createTempFile("FileCopyArtifactsTest", "");
+		dir.delete();
+		dir.mkdir();
+		input = new File(dir, "input.dat");
+		// Lines of varying length, so partition boundaries fall both mid-line and on line starts
+		StringBuilder lines = new StringBuilder();
+		for (int i = 0; i < 500; i++) {
+			lines.append(i);
+			for (int j = 0; j < i % 37; j++) {
+				lines.append((char) ('a' + j % 26));
+			}
+			lines.append('\n');
+		}
+		inputBytes = lines.toString().getBytes("US-ASCII");
+		write(input, inputBytes);
+	}
+
+	@After
+	public void deleteFiles() {
+		for (File file : dir.listFiles()) {
+			file.delete();
+		}
+		dir.delete();
+	}
+
+	@Test
+	public void partitionsCopyEveryLineOnce() throws Exception {
+		for (int partitions = 1; partitions <= 7; partitions++) {
+			assertArrayEquals("partitions = " + partitions, inputBytes, copy(partitions, "1024"));
+		}
+	}
+
+	@Test
+	public void partitionBoundaryOnLineStart() throws Exception {
+		int secondLine = indexOf('\n', 0) + 1;
+		File first = new File(dir, "part-0.dat");
+		File second = new File(dir, "part-1.dat");
+		copyRange(0, secondLine, first, null);
+		copyRange(secondLine, inputBytes.length, second, null);
+		assertEquals(secondLine, first.length());
+		assertEquals(inputBytes.length - secondLine, second.length());
+	}
+
+	@Test
+	public void lastLineWithoutNewline() throws Exception {
+		inputBytes = "first\nlast".getBytes("US-ASCII");
+		write(input, inputBytes);
+		MappedFileItemReader reader = reader(0, inputBytes.length, null);
+		reader.open(null);
+		assertEquals("first", string(reader.readItem()));
+		assertEquals("last", string(reader.readItem()));
+		assertNull(reader.readItem());
+		reader.close();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void lineLongerThanWindow() throws Exception {
+		MappedFileItemReader reader = reader(0, inputBytes.length, "16");
+		reader.open(null);
+		while (reader.readItem() != null) {
+		}
+	}
+
+	@Test
+	public void restartSeeksReaderAndTruncatesWriter() throws Exception {
+		File part = new File(dir, "part-0.dat");
+		MappedFileItemReader reader = reader(0, inputBytes.length, "512");
+		ChannelFileItemWriter writer = writer(part);
+		reader.open(null);
+		writer.open(null);
+		writer.writeItems(read(reader, 50));
+		Serializable readerCheckpoint = reader.checkpointInfo();
+		Serializable writerCheckpoint = writer.checkpointInfo();
+		// A chunk written but rolled back, so past the checkpoints
+		writer.writeItems(read(reader, 50));
+		reader.close();
+		writer.close();
+
+		reader = reader(0, inputBytes.length, "512");
+		writer = writer(part);
+		reader.open(readerCheckpoint);
+		writer.open(writerCheckpoint);
+		for (List<Object> chunk = read(reader, 50); !chunk.isEmpty(); chunk = read(reader, 50)) {
+			writer.writeItems(chunk);
+		}
+		reader.close();
+		writer.close();
+		assertArrayEquals(inputBytes, read(part));
+	}
+
+	private byte[] copy(int partitions, String window) throws Exception {
+		// Byte ranges the way DynamicPartitionMapper splits them
+		long keys = inputBytes.length;
+		long first = 0;
+		byte[] output = new byte[0];
+		for (int i = 0; i < partitions; i++) {
+			long count = keys / partitions + (i < keys % partitions ? 1 : 0);
+			File part = new File(dir, "part-" + i + ".dat");
+			copyRange(first, first + count, part, window);
+			first += count;
+			byte[] partBytes = read(part);
+			byte[] joined = new byte[output.length + partBytes.length];
+			System.arraycopy(output, 0, joined, 0, output.length);
+			System.arraycopy(partBytes, 0, joined, output.length, partBytes.length);
+			output = joined;
+		}
+		return output;
+	}
+
+	private void copyRange(long firstKey, long lastKey, File part, String window) throws Exception {
+		MappedFileItemReader reader = reader(firstKey, lastKey, window);
+		ChannelFileItemWriter writer = writer(part);
+		reader.open(null);
+		writer.open(null);
+		for (List<Object> chunk = read(reader, 10); !chunk.isEmpty(); chunk = read(reader, 10)) {
+			writer.writeItems(chunk);
+		}
+		reader.close();
+		writer.close();
+	}
+
+	private MappedFileItemReader reader(long firstKey, long lastKey, String window) {
+		MappedFileItemReader reader = new MappedFileItemReader();
+		reader.inputFile = input.getPath();
+		reader.firstKeyString = String.valueOf(firstKey);
+		reader.lastKeyString = String.valueOf(lastKey);
+		reader.windowString = window;
+		reader.stepCtx = stepContext();
+		return reader;
+	}
+
+	private ChannelFileItemWriter writer(File part) {
+		ChannelFileItemWriter writer = new ChannelFileItemWriter();
+		writer.outputFile = part.getPath();
+		// Small, so some lines go straight to the channel
+		writer.bufferSizeString = "32";
+		writer.stepCtx = stepContext();
+		return writer;
+	}
+
+	private static List<Object> read(MappedFileItemReader reader, int items) throws Exception {
+		List<Object> chunk = new ArrayList<Object>();
+		for (Object item = reader.readItem(); item != null; item = reader.readItem()) {
+			chunk.add(item);
+			if (chunk.size() == items) {
+				break;
+			}
+		}
+		return chunk;
+	}
+
+	/**
+	 * Only getStepExecutionId() is called, by CheckpointMetrics
+	 */
+	private static StepContext stepContext() {
+		return (StepContext) Proxy.newProxyInstance(StepContext.class.getClassLoader(), new Class<?>[] { StepContext.class },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if (method.getName().equals("getStepExecutionId")) {
+							return 1L;
+						}
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+	}
+
+	private int indexOf(char c, int from) {
+		for (int i = from; i < inputBytes.length; i++) {
+			if (inputBytes[i] == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static String string(Object item) throws IOException {
+		ByteBuffer line = ((ByteBuffer) item).duplicate();
+		byte[] bytes = new byte[line.remaining()];
+		line.get(bytes);
+		return new String(bytes, "US-ASCII");
+	}
+
+	private static void write(File file, byte[] bytes) throws IOException {
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(bytes);
+		} finally {
+			out.close();
+		}
+	}
+
+	private static byte[] read(File file) throws IOException {
+		RandomAccessFile in = new RandomAccessFile(file, "r");
+		try {
+			byte[] bytes = new byte[(int) in.length()];
+			in.readFully(bytes);
+			return bytes;
+		} finally {
+			in.close();
+		}
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.bench;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+
+import org.junit.Test;
+
+public class CheckpointCodecTest {
+
+	private static final int[] VALUES = { 0, 1, -1, 63, -64, 64, -65, 127, 128, -128, 8191, 8192, 16383, 16384,
+		Integer.MAX_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE - 1, Integer.MIN_VALUE + 1 };
+
+	@Test
+	public void roundTripsBoundaryValues() throws Exception {
+		for (int value : VALUES) {
+			assertEquals(value, CheckpointCodec.readVarInt(in(encode(value))));
+		}
+	}
+
+	@Test
+	public void roundTripsValuesWrittenBackToBack() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		for (int value : VALUES) {
+			CheckpointCodec.writeVarInt(out, value);
+		}
+		out.close();
+		ObjectInputStream in = in(bytes.toByteArray());
+		for (int value : VALUES) {
+			assertEquals(value, CheckpointCodec.readVarInt(in));
+		}
+	}
+
+	@Test
+	public void encodedLengthGrowsWithMagnitude() throws Exception {
+		assertEquals(1, length(0));
+		assertEquals(1, length(-1));
+		assertEquals(1, length(63));
+		assertEquals(1, length(-64));
+		assertEquals(2, length(64));
+		assertEquals(2, length(-65));
+		assertEquals(2, length(127));
+		assertEquals(2, length(128));
+		assertEquals(2, length(8191));
+		assertEquals(3, length(8192));
+		assertEquals(5, length(Integer.MAX_VALUE));
+		assertEquals(5, length(Integer.MIN_VALUE));
+	}
+
+	@Test(expected = StreamCorruptedException.class)
+	public void rejectsOverlongEncoding() throws Exception {
+		CheckpointCodec.readVarInt(in(rawStream(0x80, 0x80, 0x80, 0x80, 0x80, 0x01)));
+	}
+
+	@Test(expected = EOFException.class)
+	public void rejectsTruncatedEncoding() throws Exception {
+		CheckpointCodec.readVarInt(in(rawStream(0x80)));
+	}
+
+	@Test
+	public void checkpointDataRoundTrips() throws Exception {
+		for (int value : VALUES) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			ObjectOutputStream out = new ObjectOutputStream(bytes);
+			out.writeObject(new VarIntCheckpointData(value));
+			out.close();
+			VarIntCheckpointData read = (VarIntCheckpointData) in(bytes.toByteArray()).readObject();
+			assertEquals(value, read.getValue());
+		}
+	}
+
+	private static byte[] encode(int value) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		CheckpointCodec.writeVarInt(out, value);
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Bytes written by the codec alone, without the stream header and block data framing.
+	 */
+	private static int length(int value) throws IOException {
+		return encode(value).length - encode(0).length + 1;
+	}
+
+	private static byte[] rawStream(int... raw) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		for (int b : raw) {
+			out.writeByte(b);
+		}
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	private static ObjectInputStream in(byte[] bytes) throws IOException {
+		return new ObjectInputStream(new ByteArrayInputStream(bytes));
+	}
+}
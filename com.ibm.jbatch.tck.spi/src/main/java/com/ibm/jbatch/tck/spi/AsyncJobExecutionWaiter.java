@@ -0,0 +1,50 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.spi;
+
+import java.util.concurrent.Future;
+
+import javax.batch.runtime.JobExecution;
+
+/**
+ * Optional, non-blocking extension of JobExecutionWaiter, allowing the TCK to wait on many
+ * JobExecution(s) at once without blocking a thread on each.
+ *
+ * <p>
+ * An implementation need not implement this interface, since any JobExecutionWaiter can be
+ * adapted to it.
+ *
+ * @see JobExecutionWaiterAdapter#adapt(JobExecutionWaiter)
+ */
+public interface AsyncJobExecutionWaiter extends JobExecutionWaiter {
+	/**
+	 * Non-blocking version of {@link JobExecutionWaiter#awaitTermination()}.
+	 *
+	 * <p>
+	 * The returned Future completes with the JobExecution once it reaches a "final" state.  If it doesn't
+	 * do so within the timeout specified in the factory create method, Future.get() throws an
+	 * ExecutionException caused by a JobExecutionTimeoutException.
+	 *
+	 * <p>
+	 * Repeated calls return the same Future.  Cancelling the Future only stops the wait, not the JobExecution.
+	 *
+	 * @return Future for the JobExecution instance (based on JobExecution specified in factory create method).
+	 *
+	 * @see JobExecutionWaiterFactory#createWaiter JobExecutionWaiterFactory.createWaiter(...)
+	 */
+	Future<JobExecution> awaitTerminationAsync();
+}
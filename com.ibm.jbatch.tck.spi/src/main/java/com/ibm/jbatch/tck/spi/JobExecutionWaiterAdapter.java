@@ -0,0 +1,81 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.spi;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import javax.batch.runtime.JobExecution;
+
+/**
+ * Default adapter from a (blocking) JobExecutionWaiter to an AsyncJobExecutionWaiter, so that
+ * existing implementations of the SPI can be used by the TCK without change.
+ *
+ * <p>
+ * It simply runs awaitTermination() on a new daemon thread, so it offers no savings in threads.
+ *
+ * <p>
+ * Unlike a native AsyncJobExecutionWaiter, the Future doesn't necessarily fail with a JobExecutionTimeoutException
+ * on a timeout: Future.get() throws an ExecutionException caused by whatever the wrapped waiter threw.  For the 
+ * TCK's own polling waiter, for example, that is an IllegalStateException.
+ */
+public class JobExecutionWaiterAdapter implements AsyncJobExecutionWaiter {
+
+	private final JobExecutionWaiter waiter;
+	private FutureTask<JobExecution> future = null;
+
+	private JobExecutionWaiterAdapter(JobExecutionWaiter waiter) {
+		this.waiter = waiter;
+	}
+
+	/**
+	 * @param waiter
+	 * @return The waiter itself if it already implements AsyncJobExecutionWaiter, otherwise an adapter wrapping it.
+	 */
+	public static AsyncJobExecutionWaiter adapt(JobExecutionWaiter waiter) {
+		if (waiter instanceof AsyncJobExecutionWaiter) {
+			return (AsyncJobExecutionWaiter) waiter;
+		}
+		return new JobExecutionWaiterAdapter(waiter);
+	}
+
+	@Override
+	public JobExecution awaitTermination() throws JobExecutionTimeoutException {
+		return waiter.awaitTermination();
+	}
+
+	/**
+	 * @return Future for the JobExecution, which fails with an ExecutionException caused by any exception 
+	 * thrown by the wrapped waiter's awaitTermination(), a timeout included
+	 */
+	@Override
+	public synchronized Future<JobExecution> awaitTerminationAsync() {
+		if (future == null) {
+			future = new FutureTask<JobExecution>(new Callable<JobExecution>() {
+				@Override
+				public JobExecution call() throws Exception {
+					return waiter.awaitTermination();
+				}
+			});
+			Thread t = new Thread(future, "TCK JobExecutionWaiter adapter");
+			t.setDaemon(true);
+			t.start();
+		}
+		return future;
+	}
+}
@@ -28,6 +28,12 @@
  * to implement this SPI, but will use the default implementation.
  * 
  * <p>
+ * A JobExecutionWaiter may optionally also implement AsyncJobExecutionWaiter.  The TCK tests themselves
+ * only call awaitTermination(); awaitTerminationAsync() is only used where many executions are started 
+ * and waited on at once (JobOperatorBridge.startJobsAndWaitForResults(), used by the benchmarks), which 
+ * adapts a waiter that doesn't implement it with JobExecutionWaiterAdapter.
+ * 
+ * <p>
  * For more details, see the documentation in the TCK Reference Guide.
  *  
  * @see <a href="https://java.net/projects/jbatch/downloads/download/jsr352-tck-reference-guide.pdf">TCK Reference Guide</a> 
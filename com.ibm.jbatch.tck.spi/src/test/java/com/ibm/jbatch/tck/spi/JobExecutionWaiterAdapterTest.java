@@ -0,0 +1,150 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.spi;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Date;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+
+import org.junit.Test;
+
+public class JobExecutionWaiterAdapterTest {
+
+	@Test
+	public void adaptReturnsAsyncWaiterItself() {
+		AsyncJobExecutionWaiter waiter = JobExecutionWaiterAdapter.adapt(new FixedWaiter(new CompletedExecution(1)));
+		assertSame(waiter, JobExecutionWaiterAdapter.adapt(waiter));
+	}
+
+	@Test
+	public void awaitTerminationAsyncCompletesWithExecution() throws Exception {
+		JobExecution execution = new CompletedExecution(2);
+		AsyncJobExecutionWaiter waiter = JobExecutionWaiterAdapter.adapt(new FixedWaiter(execution));
+		Future<JobExecution> future = waiter.awaitTerminationAsync();
+		assertSame(execution, future.get(10, TimeUnit.SECONDS));
+		assertSame("Repeated calls return the same Future", future, waiter.awaitTerminationAsync());
+	}
+
+	@Test
+	public void awaitTerminationIsPassedThrough() throws Exception {
+		JobExecution execution = new CompletedExecution(3);
+		assertSame(execution, JobExecutionWaiterAdapter.adapt(new FixedWaiter(execution)).awaitTermination());
+	}
+
+	@Test
+	public void timeoutSurfacesAsWrappedWaitersException() throws Exception {
+		assertCause(new JobExecutionTimeoutException("timed out"));
+		// As thrown on a timeout by the TCK's own polling waiter
+		assertCause(new IllegalStateException("Timed out waiting for TCK Job Execution to reach terminated status"));
+	}
+
+	private void assertCause(final Exception thrown) throws Exception {
+		Future<JobExecution> future = JobExecutionWaiterAdapter.adapt(new JobExecutionWaiter() {
+			@Override
+			public JobExecution awaitTermination() throws JobExecutionTimeoutException {
+				if (thrown instanceof JobExecutionTimeoutException) {
+					throw (JobExecutionTimeoutException) thrown;
+				}
+				throw (RuntimeException) thrown;
+			}
+		}).awaitTerminationAsync();
+		try {
+			future.get(10, TimeUnit.SECONDS);
+			fail("Expected ExecutionException");
+		} catch (ExecutionException e) {
+			assertSame(thrown, e.getCause());
+		}
+		assertTrue(future.isDone());
+	}
+
+	private static class FixedWaiter implements JobExecutionWaiter {
+
+		private final JobExecution execution;
+
+		private FixedWaiter(JobExecution execution) {
+			this.execution = execution;
+		}
+
+		@Override
+		public JobExecution awaitTermination() {
+			return execution;
+		}
+	}
+
+	private static class CompletedExecution implements JobExecution {
+
+		private final long executionId;
+
+		private CompletedExecution(long executionId) {
+			this.executionId = executionId;
+		}
+
+		@Override
+		public long getExecutionId() {
+			return executionId;
+		}
+
+		@Override
+		public String getJobName() {
+			return "job";
+		}
+
+		@Override
+		public BatchStatus getBatchStatus() {
+			return BatchStatus.COMPLETED;
+		}
+
+		@Override
+		public Date getStartTime() {
+			return null;
+		}
+
+		@Override
+		public Date getEndTime() {
+			return null;
+		}
+
+		@Override
+		public String getExitStatus() {
+			return "COMPLETED";
+		}
+
+		@Override
+		public Date getCreateTime() {
+			return null;
+		}
+
+		@Override
+		public Date getLastUpdatedTime() {
+			return null;
+		}
+
+		@Override
+		public Properties getJobParameters() {
+			return null;
+		}
+	}
+}
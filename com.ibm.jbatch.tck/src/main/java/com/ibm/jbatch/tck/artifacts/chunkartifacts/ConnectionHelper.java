@@ -39,11 +39,17 @@ public class ConnectionHelper {
 
 	public static final String UPDATE_INVENTORY = "update app.inventory set quantity = ? where itemID = ?";
 
+	public static final String DECREMENT_INVENTORY = "update app.inventory set quantity = quantity - ? where itemID = ?";
+
 	public static final String SELECT_INVENTORY = "select itemID, quantity from app.inventory where itemID = ?";
 
 	public static final String DELETE_INVENTORY = "delete from app.Inventory where itemID = ?";
 	
 	public static final String DELETE_ALL_ORDERS = "delete from app.Orders where orderID > 0";
+
+	public static final String DELETE_GENERATED_INVENTORY = "delete from app.Inventory where itemID >= ?";
+
+	public static final String RANGE_GENERATED_INVENTORY = "select COUNT(*) AS rowcount, MIN(itemID) AS minid, MAX(itemID) AS maxid from app.Inventory where itemID >= ?";
 	
 	public static final String INSERT_ORDER = "insert into app.Orders values(DEFAULT, ?, ?)";
 	
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.chunkartifacts;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import javax.batch.api.AbstractBatchlet;
+import javax.batch.api.BatchProperty;
+import javax.inject.Inject;
+import javax.naming.InitialContext;
+import javax.sql.DataSource;
+
+/**
+ * Runs one of the DDL scripts under ddls/ (e.g. "ddls/derby.ddl.jbatch-tck.sql", named by "ddl.resource")
+ * against the TCK's order database, so the tables can be (re)created before generating data.  Does nothing
+ * if "ddl.resource" isn't set.
+ *
+ * Statements end with a line ending in "ddl.delimiter" (default ";", but "!" for the MySQL script).  A PL/SQL 
+ * block (CREATE TRIGGER, PROCEDURE, FUNCTION or PACKAGE, or an anonymous BEGIN or DECLARE block) is instead sent 
+ * whole, up to the "END;" line closing its outermost BEGIN, or a line holding just "/", as in the Oracle script.
+ *
+ * So that the script can be run again, failed DROP statements are logged and ignored, and so are failed CREATE 
+ * statements where the database reports that the object already exists (e.g. the Oracle script's sequence, which 
+ * it doesn't drop).  The MySQL script drops nothing and creates its tables only if they don't exist, so running it 
+ * again fails on its first INSERT into Inventory.
+ */
+@javax.inject.Named("ddlLoaderBatchlet")
+public class DDLLoaderBatchlet extends AbstractBatchlet {
+
+	private final static Logger logger = Logger.getLogger(DDLLoaderBatchlet.class.getName());
+
+	// The SQLStates, then the vendor error codes, of "object already exists": Derby, DB2, PostgreSQL, MySQL; Oracle, SQL Server and Sybase
+	private static final List<String> ALREADY_EXISTS_STATES = Arrays.asList("X0Y32", "42710", "42P07", "42S01");
+	private static final List<Integer> ALREADY_EXISTS_CODES = Arrays.asList(955, 2714);
+
+	private static final Pattern BLOCK_START = Pattern.compile("(CREATE\\s+(OR\\s+REPLACE\\s+)?(TRIGGER|PROCEDURE|FUNCTION|PACKAGE)|BEGIN|DECLARE)\\b.*", 
+			Pattern.CASE_INSENSITIVE);
+
+	@Inject
+	@BatchProperty(name = "ddl.resource")
+	String ddlResource;
+
+	@Inject
+	@BatchProperty(name = "ddl.delimiter")
+	String ddlDelimiter;
+
+	@Override
+	public String process() throws Exception {
+		if (ddlResource == null || ddlResource.isEmpty()) {
+			logger.fine("No ddl.resource, nothing to load");
+			return "NO_DDL";
+		}
+
+		String delimiter = ddlDelimiter == null || ddlDelimiter.isEmpty() ? ";" : ddlDelimiter;
+		List<String> statements = readStatements(ddlResource, delimiter);
+
+		DataSource dataSource = (DataSource) new InitialContext().lookup(ConnectionHelper.jndiName);
+		Connection connection = null;
+		Statement statement = null;
+		try {
+			connection = ConnectionHelper.getConnection(dataSource);
+			statement = connection.createStatement();
+			for (String sql : statements) {
+				try {
+					statement.executeUpdate(sql);
+				} catch (SQLException e) {
+					if (sql.toUpperCase().startsWith("DROP")) {
+						logger.fine("Ignoring failed statement: " + sql + ", " + e.getMessage());
+					} else if (sql.toUpperCase().startsWith("CREATE") && alreadyExists(e)) {
+						logger.fine("Already exists, ignoring: " + sql + ", " + e.getMessage());
+					} else {
+						throw e;
+					}
+				}
+			}
+		} finally {
+			if (statement != null) {
+				statement.close();
+			}
+			ConnectionHelper.cleanupConnection(connection, null, null);
+		}
+
+		logger.fine("Ran " + statements.size() + " statements from " + ddlResource);
+		return "LOADED";
+	}
+
+	private static boolean alreadyExists(SQLException e) {
+		return ALREADY_EXISTS_STATES.contains(e.getSQLState()) || ALREADY_EXISTS_CODES.contains(e.getErrorCode());
+	}
+
+	/*
+	 * Splits the script into statements as described above, dropping comments and blank lines.
+	 */
+	private static List<String> readStatements(String resource, String delimiter) throws IOException {
+		InputStream in = DDLLoaderBatchlet.class.getClassLoader().getResourceAsStream(resource);
+		if (in == null) {
+			throw new IllegalArgumentException("DDL resource not found on classpath: " + resource);
+		}
+		List<String> statements = new ArrayList<String>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+		try {
+			StringBuilder current = new StringBuilder();
+			boolean block = false;
+			int depth = 0;
+			String line;
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("--")) {
+					continue;
+				}
+				if (current.length() == 0) {
+					block = BLOCK_START.matcher(line).matches();
+					depth = 0;
+				}
+				if (block) {
+					if (line.equals("/")) {
+						statements.add(current.toString().trim());
+						current.setLength(0);
+						continue;
+					}
+					// PL/SQL keeps its line breaks, and the ';' ending the block
+					current.append(line).append('\n');
+					String upper = line.toUpperCase();
+					if (upper.equals("BEGIN") || upper.startsWith("BEGIN ")) {
+						depth++;
+					} else if (upper.equals("END;") && --depth <= 0) {
+						statements.add(current.toString().trim());
+						current.setLength(0);
+					}
+				} else {
+					current.append(line).append(' ');
+					if (line.endsWith(delimiter)) {
+						String sql = current.toString().trim();
+						statements.add(sql.substring(0, sql.length() - delimiter.length()).trim());
+						current.setLength(0);
+					}
+				}
+			}
+			if (current.toString().trim().length() > 0) {
+				statements.add(current.toString().trim());
+			}
+		} finally {
+			reader.close();
+		}
+		return statements;
+	}
+}
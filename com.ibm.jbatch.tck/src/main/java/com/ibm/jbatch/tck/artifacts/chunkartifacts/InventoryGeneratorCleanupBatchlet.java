@@ -0,0 +1,59 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.chunkartifacts;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.logging.Logger;
+
+import javax.batch.api.AbstractBatchlet;
+import javax.inject.Named;
+import javax.naming.InitialContext;
+import javax.sql.DataSource;
+
+/**
+ * Clears out whatever InventoryGeneratorWriter wrote last time, i.e. all orders and every inventory item
+ * but the one (itemID 1) the TCK tests use.
+ */
+@Named("inventoryGeneratorCleanupBatchlet")
+public class InventoryGeneratorCleanupBatchlet extends AbstractBatchlet {
+
+	private final static Logger logger = Logger.getLogger(InventoryGeneratorCleanupBatchlet.class.getName());
+
+	@Override
+	public String process() throws Exception {
+		DataSource dataSource = (DataSource) new InitialContext().lookup(ConnectionHelper.jndiName);
+
+		Connection connection = null;
+		PreparedStatement statement = null;
+		try {
+			connection = ConnectionHelper.getConnection(dataSource);
+			statement = connection.prepareStatement(ConnectionHelper.DELETE_ALL_ORDERS);
+			int orders = statement.executeUpdate();
+			statement.close();
+
+			statement = connection.prepareStatement(ConnectionHelper.DELETE_GENERATED_INVENTORY);
+			statement.setInt(1, InventoryGeneratorMapper.FIRST_ITEM_ID);
+			int items = statement.executeUpdate();
+
+			logger.fine("Deleted " + orders + " orders and " + items + " generated inventory items");
+		} finally {
+			ConnectionHelper.cleanupConnection(connection, null, statement);
+		}
+		return "CLEANED";
+	}
+}
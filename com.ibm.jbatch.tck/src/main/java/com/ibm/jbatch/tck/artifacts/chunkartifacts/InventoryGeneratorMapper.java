@@ -0,0 +1,95 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.chunkartifacts;
+
+import java.util.Properties;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.partition.PartitionMapper;
+import javax.batch.api.partition.PartitionPlan;
+import javax.batch.api.partition.PartitionPlanImpl;
+import javax.batch.runtime.context.StepContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+/**
+ * Splits "item.count" generated inventory items, numbered from FIRST_ITEM_ID, into "partitions"
+ * contiguous ranges, one per partition.
+ *
+ * Every partition gets the same seed: "seed" if set, otherwise a random one (logged, so the 
+ * data can be generated again).  The seed is kept in the step's persistent user data, so a
+ * restart regenerates the remaining items from the same seed as the first execution.
+ */
+@Named("inventoryGeneratorMapper")
+public class InventoryGeneratorMapper implements PartitionMapper {
+
+	private final static Logger logger = Logger.getLogger(InventoryGeneratorMapper.class.getName());
+
+	// itemID 1 is the one the TCK tests order from.
+	public static final int FIRST_ITEM_ID = 2;
+
+	@Inject
+	@BatchProperty(name = "item.count")
+	String itemCountProp;
+
+	@Inject
+	@BatchProperty(name = "partitions")
+	String partitionsProp;
+
+	@Inject
+	@BatchProperty(name = "seed")
+	String seedProp;
+
+	@Inject
+	StepContext stepCtx;
+
+	@Override
+	public PartitionPlan mapPartitions() throws Exception {
+		int itemCount = Integer.parseInt(itemCountProp);
+		int partitions = partitionsProp == null || partitionsProp.isEmpty() ? 1 : Integer.parseInt(partitionsProp);
+		long seed;
+		if (seedProp != null && !seedProp.isEmpty()) {
+			seed = Long.parseLong(seedProp);
+		} else if (stepCtx.getPersistentUserData() instanceof Long) {
+			seed = (Long) stepCtx.getPersistentUserData();
+			logger.info("Restarting with the previous seed");
+		} else {
+			seed = new Random().nextLong();
+		}
+		stepCtx.setPersistentUserData(seed);
+		logger.info("Generating " + itemCount + " inventory items in " + partitions + " partitions, seed = " + seed);
+
+		Properties[] props = new Properties[partitions];
+		int first = FIRST_ITEM_ID;
+		for (int i = 0; i < partitions; i++) {
+			// Spread the remainder over the first partitions
+			int count = itemCount / partitions + (i < itemCount % partitions ? 1 : 0);
+			props[i] = new Properties();
+			props[i].setProperty("first.item.id", String.valueOf(first));
+			props[i].setProperty("item.count", String.valueOf(count));
+			props[i].setProperty("seed", String.valueOf(seed));
+			first += count;
+		}
+
+		PartitionPlan plan = new PartitionPlanImpl();
+		plan.setPartitions(partitions);
+		plan.setPartitionProperties(props);
+		return plan;
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.chunkartifacts;
+
+import java.io.Serializable;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractItemReader;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import com.ibm.jbatch.tck.artifacts.chunktypes.InventoryCheckpointData;
+import com.ibm.jbatch.tck.artifacts.chunktypes.InventoryRecord;
+
+/**
+ * Generates "item.count" InventoryRecords, numbered from "first.item.id", each with a quantity 
+ * between 1 and "max.quantity" (default 1000).
+ *
+ * The quantity depends only on "seed" and the itemID, so the same seed generates the same data 
+ * however it is partitioned, and across restarts.
+ */
+@Named("inventoryGeneratorReader")
+public class InventoryGeneratorReader extends AbstractItemReader {
+
+	@Inject
+	@BatchProperty(name = "first.item.id")
+	String firstItemIdProp;
+
+	@Inject
+	@BatchProperty(name = "item.count")
+	String itemCountProp;
+
+	@Inject
+	@BatchProperty(name = "max.quantity")
+	String maxQuantityProp;
+
+	@Inject
+	@BatchProperty(name = "seed")
+	String seedProp;
+
+	private int firstItemId;
+	private int itemCount;
+	private int maxQuantity;
+	private long seed;
+
+	private InventoryCheckpointData checkpoint = new InventoryCheckpointData(); // items generated so far
+
+	@Override
+	public void open(Serializable cpd) {
+		firstItemId = Integer.parseInt(firstItemIdProp);
+		itemCount = Integer.parseInt(itemCountProp);
+		maxQuantity = maxQuantityProp == null || maxQuantityProp.isEmpty() ? 1000 : Integer.parseInt(maxQuantityProp);
+		seed = Long.parseLong(seedProp);
+		if (cpd != null) {
+			checkpoint = (InventoryCheckpointData) cpd;
+		}
+	}
+
+	@Override
+	public InventoryRecord readItem() {
+		int generated = checkpoint.getInventoryCount();
+		if (generated >= itemCount) {
+			return null;
+		}
+		checkpoint.setInventoryCount(generated + 1);
+		int itemID = firstItemId + generated;
+		return new InventoryRecord(itemID, 1 + (int) (mix(seed + itemID) >>> 33) % maxQuantity);
+	}
+
+	@Override
+	public Serializable checkpointInfo() {
+		return checkpoint;
+	}
+
+	/**
+	 * SplitMix64 finalizer, so nearby itemIDs get unrelated quantities.
+	 */
+	static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.chunkartifacts;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import javax.batch.api.BatchProperty;
+import javax.batch.api.chunk.AbstractItemWriter;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.naming.InitialContext;
+import javax.sql.DataSource;
+
+import com.ibm.jbatch.tck.artifacts.chunktypes.InventoryRecord;
+
+/**
+ * Inserts each generated InventoryRecord, plus "orders.per.item" (default 0) single-item orders against it, 
+ * as JDBC batches of one chunk each.
+ */
+@Named("inventoryGeneratorWriter")
+public class InventoryGeneratorWriter extends AbstractItemWriter {
+
+	@Inject
+	@BatchProperty(name = "orders.per.item")
+	String ordersPerItemProp;
+
+	protected DataSource dataSource = null;
+
+	private int ordersPerItem;
+
+	@Override
+	public void open(Serializable cpd) throws Exception {
+		dataSource = (DataSource) new InitialContext().lookup(ConnectionHelper.jndiName);
+		ordersPerItem = ordersPerItemProp == null || ordersPerItemProp.isEmpty() ? 0 : Integer.parseInt(ordersPerItemProp);
+	}
+
+	@Override
+	public void writeItems(List<Object> records) throws Exception {
+		Connection connection = null;
+		PreparedStatement inventoryStatement = null;
+		PreparedStatement orderStatement = null;
+
+		try {
+			connection = ConnectionHelper.getConnection(dataSource);
+			inventoryStatement = connection.prepareStatement(ConnectionHelper.INSERT_INVENTORY);
+			for (Object record : records) {
+				inventoryStatement.setInt(1, ((InventoryRecord) record).getItemID());
+				inventoryStatement.setInt(2, ((InventoryRecord) record).getQuantity());
+				inventoryStatement.addBatch();
+			}
+			inventoryStatement.executeBatch();
+
+			if (ordersPerItem > 0) {
+				orderStatement = connection.prepareStatement(ConnectionHelper.INSERT_ORDER);
+				for (Object record : records) {
+					for (int i = 0; i < ordersPerItem; i++) {
+						orderStatement.setInt(1, ((InventoryRecord) record).getItemID());
+						orderStatement.setInt(2, 1);
+						orderStatement.addBatch();
+					}
+				}
+				orderStatement.executeBatch();
+			}
+		} finally {
+			if (orderStatement != null) {
+				orderStatement.close();
+			}
+			ConnectionHelper.cleanupConnection(connection, null, inventoryStatement);
+		}
+	}
+}
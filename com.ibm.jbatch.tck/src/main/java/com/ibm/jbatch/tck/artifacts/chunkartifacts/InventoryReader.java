@@ -23,6 +23,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.logging.Logger;
 
+import javax.batch.api.BatchProperty;
 import javax.batch.api.chunk.AbstractItemReader;
 import javax.batch.runtime.context.JobContext;
 import javax.batch.runtime.context.StepContext;
@@ -49,12 +50,21 @@ public class InventoryReader extends AbstractItemReader {
     @Inject
     StepContext stepCtx;
     
+    // If "true", reads the inventory once in open() and decrements it once per chunk, in checkpointInfo(),
+    // rather than querying and updating it, on a new connection, for every item
+    @Inject
+    @BatchProperty(name = "streaming.reads")
+    String streamingReadsProp;
+
+	boolean streamingReads = false;
+	int availableQuantity = -1; // streaming only: inventory left, as of open() less what has been read since
+	int pendingDecrement = 0; // streaming only: items read since the last checkpoint
 
 	int readerIndex = 0; //the number of items that have already been read
 	InventoryCheckpointData inventoryCheckpoint = new InventoryCheckpointData();
 	
 	
-	public void open(Serializable cpd) throws NamingException {
+	public void open(Serializable cpd) throws NamingException, SQLException {
 
 	    InventoryCheckpointData checkpointData = (InventoryCheckpointData)cpd;
 	    
@@ -68,10 +78,21 @@ public class InventoryReader extends AbstractItemReader {
 			// Fix for Bug 5490:    https://java.net/bugzilla/show_bug.cgi?id=5490
 			stepCtx.setTransientUserData(this.readerIndex);
 		} 	
+
+		streamingReads = Boolean.parseBoolean(streamingReadsProp);
+		if (streamingReads) {
+			// Whatever was read before the last checkpoint has already been taken off the inventory
+			availableQuantity = queryInventory();
+			pendingDecrement = 0;
+			logger.fine("Streaming reads from inventory = " + availableQuantity + ", readerIndex = " + readerIndex);
+		}
 	}
 
 	public InventoryRecord readItem() throws Exception {
 
+		if (streamingReads) {
+			return readItemStreaming();
+		}
 
 		Connection connection = null;
 		PreparedStatement statement = null;
@@ -112,8 +133,31 @@ public class InventoryReader extends AbstractItemReader {
 	}
 
 
+	private InventoryRecord readItemStreaming() {
+		//If we run out of items we are done so stop processing orders
+		if (availableQuantity < 1) {
+			return null;
+		}
+
+		availableQuantity--;
+		pendingDecrement++;
+
+		readerIndex++;
+		this.inventoryCheckpoint.setInventoryCount(readerIndex);
+
+		return new InventoryRecord(1, 1); //Every order only orders 1 item
+	}
+
+    /*
+     * In streaming mode, also takes the chunk's items off the inventory, in a single update in the chunk's
+     * transaction, so they're rolled back along with the orders if the chunk is.
+     */
     @Override
     public Serializable checkpointInfo() throws Exception {
+        if (streamingReads && pendingDecrement > 0) {
+            decrementInventory(pendingDecrement);
+            pendingDecrement = 0;
+        }
         logger.finer("InventoryReader.getInventoryCheckpoint() index = " +this.inventoryCheckpoint.getInventoryCount());
         
         return this.inventoryCheckpoint;
@@ -136,6 +180,46 @@ public class InventoryReader extends AbstractItemReader {
         
     }
 
+    private int queryInventory() throws SQLException {
+
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet rs = null;
+
+        try {
+            connection = ConnectionHelper.getConnection(dataSource);
+
+            statement = connection.prepareStatement(ConnectionHelper.SELECT_INVENTORY);
+            statement.setInt(1, 1);
+            rs = statement.executeQuery();
+
+            int quantity = -1;
+            while (rs.next()) {
+                quantity = rs.getInt("quantity");
+            }
+            return quantity;
+        } finally {
+            ConnectionHelper.cleanupConnection(connection, rs, statement);
+        }
+    }
+
+    private void decrementInventory(int count) throws SQLException {
+
+        Connection connection = null;
+        PreparedStatement statement = null;
+
+        try {
+            connection = ConnectionHelper.getConnection(dataSource);
+
+            statement = connection.prepareStatement(ConnectionHelper.DECREMENT_INVENTORY);
+            statement.setInt(1, count);
+            statement.setInt(2, 1);
+            statement.executeUpdate();
+        } finally {
+            ConnectionHelper.cleanupConnection(connection, null, statement);
+        }
+    }
+
 
 
 }
@@ -44,8 +44,15 @@ public class InventoryWriter extends AbstractItemWriter {
     @BatchProperty(name = "dummy.delay.seconds")
     String dummyDelayProp;
 
+    // If "true", prepares the insert once per chunk and sends the whole chunk as one JDBC batch
+    @Inject
+    @BatchProperty(name = "batch.writes")
+    String batchWritesProp;
+
     int forcedFailCount, dummyDelay = -1;
 
+    boolean batchWrites = false;
+
     int writerIndex = 0; // the number of items that have already been written
 
     @Override
@@ -56,6 +63,7 @@ public class InventoryWriter extends AbstractItemWriter {
 
         forcedFailCount = Integer.parseInt(forcedFailCountProp);
         dummyDelay = Integer.parseInt(dummyDelayProp);
+        batchWrites = Boolean.parseBoolean(batchWritesProp);
 
     }
 
@@ -72,14 +80,24 @@ public class InventoryWriter extends AbstractItemWriter {
         try {
             connection = ConnectionHelper.getConnection(dataSource);
 
+            if (batchWrites) {
+                statement = connection.prepareStatement(ConnectionHelper.INSERT_ORDER);
+            }
+
             for (Object record : records) {
                 itemID = ((InventoryRecord)record).getItemID();
                 quantity = ((InventoryRecord)record).getQuantity();
 
-                statement = connection.prepareStatement(ConnectionHelper.INSERT_ORDER);
-                statement.setInt(1, itemID);
-                statement.setInt(2, quantity);
-                int rs = statement.executeUpdate();
+                if (batchWrites) {
+                    statement.setInt(1, itemID);
+                    statement.setInt(2, quantity);
+                    statement.addBatch();
+                } else {
+                    statement = connection.prepareStatement(ConnectionHelper.INSERT_ORDER);
+                    statement.setInt(1, itemID);
+                    statement.setInt(2, quantity);
+                    int rs = statement.executeUpdate();
+                }
 
                 writerIndex++;
                 
@@ -95,6 +113,11 @@ public class InventoryWriter extends AbstractItemWriter {
                     }
                 }
             }
+
+            if (batchWrites) {
+                // A forced failure above leaves the batch unsent, but the chunk rolls back either way
+                statement.executeBatch();
+            }
         } catch (SQLException e) {
             throw e;
         } finally {
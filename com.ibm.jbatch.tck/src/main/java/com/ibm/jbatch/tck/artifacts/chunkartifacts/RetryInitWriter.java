@@ -22,7 +22,9 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.List;
 
+import javax.batch.api.BatchProperty;
 import javax.batch.api.chunk.AbstractItemWriter;
+import javax.inject.Inject;
 import javax.naming.InitialContext;
 import javax.naming.NamingException;
 import javax.sql.DataSource;
@@ -34,10 +36,18 @@ public class RetryInitWriter extends AbstractItemWriter {
 	
 	
 	protected DataSource dataSource = null;
+
+	// If "true", prepares the update once per chunk and sends the whole chunk as one JDBC batch
+	@Inject
+	@BatchProperty(name="batch.writes")
+	String batchWritesProp;
+
+	boolean batchWrites = false;
 	
 	public void open(Serializable cpd) throws NamingException {
 		InitialContext ctx = new InitialContext();
 		dataSource = (DataSource) ctx.lookup(RetryConnectionHelper.jndiName);
+		batchWrites = Boolean.parseBoolean(batchWritesProp);
 	}
 	
 	@Override
@@ -50,6 +60,18 @@ public class RetryInitWriter extends AbstractItemWriter {
 		PreparedStatement statement = null;
 		
 		try {
+			if (batchWrites) {
+				connection = RetryConnectionHelper.getConnection(dataSource);
+				statement = connection.prepareStatement(RetryConnectionHelper.UPDATE_NUMBERS);
+				for (Object record : records) {
+					statement.setInt(2, ((NumbersRecord)record).getItem());
+					statement.setInt(1, ((NumbersRecord)record).getQuantity());
+					statement.addBatch();
+				}
+				statement.executeBatch();
+				return;
+			}
+
 			for (Object record : records) {
 				item = ((NumbersRecord)record).getItem();
 				quantity = ((NumbersRecord)record).getQuantity();
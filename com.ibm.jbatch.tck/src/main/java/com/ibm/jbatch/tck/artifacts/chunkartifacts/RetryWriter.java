@@ -54,6 +54,11 @@ public class RetryWriter extends AbstractItemWriter {
     @Inject
     @BatchProperty(name="rollback")
 	String rollbackProp;
+
+    // If "true", prepares the update once per chunk and sends the whole chunk as one JDBC batch
+    @Inject
+    @BatchProperty(name="batch.writes")
+	String batchWritesProp;
 	
     private static final int STATE_NORMAL = 0;
 	private static final int STATE_RETRY = 1;
@@ -65,6 +70,7 @@ public class RetryWriter extends AbstractItemWriter {
 	int forcedFailCount = 0;
 	boolean isInited = false;
 	boolean rollback;
+	boolean batchWrites;
 	int count = 1;
 	
 	@Override
@@ -83,62 +89,20 @@ public class RetryWriter extends AbstractItemWriter {
 		if(!isInited) {
 			forcedFailCount = Integer.parseInt(forcedFailCountProp);
 			rollback = Boolean.parseBoolean(rollbackProp);
+			batchWrites = Boolean.parseBoolean(batchWritesProp);
 			isInited = true;
 		}
 		
+		if (batchWrites) {
+			writeItemsBatched(records);
+			return;
+		}
+
 		for (Object record : records) {
 			item = ((NumbersRecord)record).getItem();
 			quantity = ((NumbersRecord)record).getQuantity();
 			
-			Reporter.log("Writing item: " + item + "...<br>");
-			
-			// Throw an exception when forcedFailCount is reached
-			if (forcedFailCount != 0 && count >= forcedFailCount && (testState == STATE_NORMAL)) {
-					    //forcedFailCount = 0;
-						testState = STATE_RETRY;
-						Reporter.log("Fail on purpose in NumbersRecord.writeItems<p>");
-						throw new MyParentException("Fail on purpose in NumbersRecord.writeItems()");	
-			} else if (forcedFailCount != 0 && count > forcedFailCount && (testState == STATE_EXCEPTION)) {
-				testState = STATE_SKIP;
-				forcedFailCount = 0;
-				Reporter.log("Test skip -- Fail on purpose NumbersRecord.writeItems<p>");
-				throw new MyParentException("Test skip -- Fail on purpose in NumbersRecord.writeItems()");
-			}
-			
-			if (testState == STATE_RETRY)
-			{
-				
-				if (((Properties)stepCtx.getTransientUserData()).getProperty("retry.write.exception.invoked") != "true") {
-					Reporter.log("onRetryWriteException not invoked<p>");
-					throw new Exception("onRetryWriteException not invoked");
-				} else {
-					Reporter.log("onRetryWriteException was invoked<p>");
-				}
-				
-				if (((Properties)stepCtx.getTransientUserData()).getProperty("retry.write.exception.match") != "true") {
-					Reporter.log("retryable exception does not match");
-					throw new Exception("retryable exception does not match");
-				} else {
-					Reporter.log("retryable exception matches");
-				}
-				
-				testState = STATE_EXCEPTION;
-			} else if(testState == STATE_SKIP) {
-				if (((Properties)stepCtx.getTransientUserData()).getProperty("skip.write.item.invoked") != "true") {
-					Reporter.log("onSkipWriteItem not invoked<p>");
-					throw new Exception("onSkipWriteItem not invoked");
-				} else {
-					Reporter.log("onSkipWriteItem was invoked<p>");
-				}
-				
-				if (((Properties)stepCtx.getTransientUserData()).getProperty("skip.write.item.match") != "true") {
-					Reporter.log("skippable exception does not match<p>");
-					throw new Exception("skippable exception does not match");
-				} else {
-					Reporter.log("skippable exception matches<p>");
-				}
-				testState = STATE_NORMAL;
-			}
+			checkRecord(item);
 		
 			Connection connection = null;	
 			PreparedStatement statement = null;
@@ -161,5 +125,89 @@ public class RetryWriter extends AbstractItemWriter {
 		}
 	}
 
+	private void writeItemsBatched(List<Object> records) throws Exception {
+		Connection connection = null;	
+		PreparedStatement statement = null;
+		
+		try {
+			connection = RetryConnectionHelper.getConnection(dataSource);
+			statement = connection.prepareStatement(RetryConnectionHelper.UPDATE_NUMBERS);
+
+			for (Object record : records) {
+				int item = ((NumbersRecord)record).getItem();
+				int quantity = ((NumbersRecord)record).getQuantity();
+
+				checkRecord(item);
+
+				statement.setInt(2, item);
+				statement.setInt(1, quantity);
+				statement.addBatch();
+				count++;
+			}
+			statement.executeBatch();
+			Reporter.log("Wrote batch of " + records.size() + " items<p>");
+		} catch (SQLException e) {
+			throw e;
+		} finally {
+			RetryConnectionHelper.cleanupConnection(connection, null, statement);
+		}
+	}
+
+	/*
+	 * Drives the retry and skip scenarios, throwing when the forced failure count is reached, then 
+	 * checking the listeners saw that failure.
+	 */
+	private void checkRecord(int item) throws Exception {
+		Reporter.log("Writing item: " + item + "...<br>");
+		
+		// Throw an exception when forcedFailCount is reached
+		if (forcedFailCount != 0 && count >= forcedFailCount && (testState == STATE_NORMAL)) {
+				    //forcedFailCount = 0;
+					testState = STATE_RETRY;
+					Reporter.log("Fail on purpose in NumbersRecord.writeItems<p>");
+					throw new MyParentException("Fail on purpose in NumbersRecord.writeItems()");	
+		} else if (forcedFailCount != 0 && count > forcedFailCount && (testState == STATE_EXCEPTION)) {
+			testState = STATE_SKIP;
+			forcedFailCount = 0;
+			Reporter.log("Test skip -- Fail on purpose NumbersRecord.writeItems<p>");
+			throw new MyParentException("Test skip -- Fail on purpose in NumbersRecord.writeItems()");
+		}
+		
+		if (testState == STATE_RETRY)
+		{
+			
+			if (((Properties)stepCtx.getTransientUserData()).getProperty("retry.write.exception.invoked") != "true") {
+				Reporter.log("onRetryWriteException not invoked<p>");
+				throw new Exception("onRetryWriteException not invoked");
+			} else {
+				Reporter.log("onRetryWriteException was invoked<p>");
+			}
+			
+			if (((Properties)stepCtx.getTransientUserData()).getProperty("retry.write.exception.match") != "true") {
+				Reporter.log("retryable exception does not match");
+				throw new Exception("retryable exception does not match");
+			} else {
+				Reporter.log("retryable exception matches");
+			}
+			
+			testState = STATE_EXCEPTION;
+		} else if(testState == STATE_SKIP) {
+			if (((Properties)stepCtx.getTransientUserData()).getProperty("skip.write.item.invoked") != "true") {
+				Reporter.log("onSkipWriteItem not invoked<p>");
+				throw new Exception("onSkipWriteItem not invoked");
+			} else {
+				Reporter.log("onSkipWriteItem was invoked<p>");
+			}
+			
+			if (((Properties)stepCtx.getTransientUserData()).getProperty("skip.write.item.match") != "true") {
+				Reporter.log("skippable exception does not match<p>");
+				throw new Exception("skippable exception does not match");
+			} else {
+				Reporter.log("skippable exception matches<p>");
+			}
+			testState = STATE_NORMAL;
+		}
+	}
+
 }
 
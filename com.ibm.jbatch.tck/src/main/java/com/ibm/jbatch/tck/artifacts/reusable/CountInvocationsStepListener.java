@@ -31,9 +31,6 @@ public class CountInvocationsStepListener extends AbstractStepListener {
     @Inject 
     private JobContext jobCtx = null; 
     
-    public static int STATIC_BEFORE_COUNT = 0;
-    public static int STATIC_AFTER_COUNT = 0;
-    
 	@Override
 	public void beforeStep() throws Exception {
 		if (jobCtx.getTransientUserData() == null) {
@@ -46,7 +43,6 @@ public class CountInvocationsStepListener extends AbstractStepListener {
 		} else {
 			logger.fine("In beforeStep(), not MyCounter");
 		}
-		STATIC_BEFORE_COUNT++;
 	}
 	
 	@Override
@@ -58,7 +54,6 @@ public class CountInvocationsStepListener extends AbstractStepListener {
 		} else {
 			logger.fine("In afterStep(), not MyCounter");
 		}
-		STATIC_AFTER_COUNT++;
 	}
 	
 }
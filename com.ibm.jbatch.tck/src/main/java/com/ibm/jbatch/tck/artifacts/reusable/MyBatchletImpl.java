@@ -16,6 +16,7 @@
 */
 package com.ibm.jbatch.tck.artifacts.reusable;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
 import javax.batch.api.AbstractBatchlet;
@@ -27,7 +28,7 @@ import javax.inject.Inject;
 public class MyBatchletImpl extends AbstractBatchlet {
 	private final static Logger logger = Logger.getLogger(MyBatchletImpl.class.getName());
 	
-    private volatile static int count = 1;
+    private final static AtomicInteger count = new AtomicInteger(1);
     
     public static String GOOD_EXIT_STATUS = "VERY GOOD INVOCATION";       
     
@@ -41,9 +42,7 @@ public class MyBatchletImpl extends AbstractBatchlet {
 	    
 	    jobCtx.setExitStatus(curStatus + "UnusedExitStatusForPartitions");
 	    
-		logger.fine("Running batchlet process(): " + count);
-		
-		count++;
+		logger.fine("Running batchlet process(): " + count.getAndIncrement());
 
 		return GOOD_EXIT_STATUS;
 				
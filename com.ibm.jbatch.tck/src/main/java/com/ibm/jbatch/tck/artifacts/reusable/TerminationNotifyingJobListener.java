@@ -0,0 +1,46 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.artifacts.reusable;
+
+import javax.batch.api.listener.AbstractJobListener;
+import javax.batch.runtime.context.JobContext;
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import com.ibm.jbatch.tck.polling.TCKRunningNotifier;
+import com.ibm.jbatch.tck.polling.TCKTerminationNotifier;
+
+/**
+ * Wakes up the TCKEventDrivenExecutionWaiterFactory waiter (if any) for this execution,
+ * rather than leaving it to find out about the end of the job on its next poll.
+ *
+ * Also drops any TCKRunningNotifier signals nobody waited for.
+ *
+ * Does not touch the exit status, so it can be added as the last job-level listener to any job.
+ */
+@Named
+public class TerminationNotifyingJobListener extends AbstractJobListener {
+
+	@Inject
+	private JobContext jobCtx = null;
+
+	@Override
+	public void afterJob() throws Exception {
+		TCKRunningNotifier.jobEnded(jobCtx.getExecutionId());
+		TCKTerminationNotifier.jobEnded(jobCtx.getExecutionId());
+	}
+}
@@ -21,12 +21,14 @@ import java.util.logging.Logger;
 
 import javax.batch.api.BatchProperty;
 import javax.batch.api.chunk.AbstractItemReader;
+import javax.batch.runtime.context.JobContext;
 import javax.batch.runtime.context.StepContext;
 import javax.inject.Inject;
 
 import com.ibm.jbatch.tck.artifacts.chunktypes.ArrayIndexCheckpointData;
 import com.ibm.jbatch.tck.artifacts.chunktypes.ReadRecord;
 import com.ibm.jbatch.tck.artifacts.reusable.MyPersistentRestartUserData;
+import com.ibm.jbatch.tck.polling.TCKRunningNotifier;
 
 @javax.inject.Named("doSomethingSimpleTimeArrayReader")
 public class DoSomethingSimpleTimeArrayReader extends AbstractItemReader {
@@ -54,6 +56,9 @@ public class DoSomethingSimpleTimeArrayReader extends AbstractItemReader {
     @BatchProperty(name="app.sleeptime")
     String sleeptimeString;
 	
+	@Inject 
+	private JobContext jobCtx = null; 
+
 	     @Inject 
 	 private StepContext stepCtx = null; 
 		
@@ -90,6 +95,8 @@ public class DoSomethingSimpleTimeArrayReader extends AbstractItemReader {
 				idx = checkpointData.getCurrentIndex() + 1; 
 			}
 			logger.fine("READ: starting at index: " + idx);
+
+			TCKRunningNotifier.running(jobCtx.getExecutionId());
 		}
 		
 		@Override
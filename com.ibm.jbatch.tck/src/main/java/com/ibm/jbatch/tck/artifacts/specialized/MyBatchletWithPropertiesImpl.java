@@ -17,6 +17,7 @@
 package com.ibm.jbatch.tck.artifacts.specialized;
 
 import java.lang.reflect.Field;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
 import javax.batch.api.AbstractBatchlet;
@@ -28,7 +29,7 @@ public class MyBatchletWithPropertiesImpl extends AbstractBatchlet {
 
 	private final static Logger logger = Logger.getLogger(MyBatchletWithPropertiesImpl.class.getName());
 	
-    private static int count = 1;
+    private final static AtomicInteger count = new AtomicInteger(1);
 
     public static String GOOD_EXIT_CODE = "VERY GOOD INVOCATION";
 
@@ -101,7 +102,7 @@ public class MyBatchletWithPropertiesImpl extends AbstractBatchlet {
     
     @Override
     public void stop() throws Exception {
-        logger.fine("MyBatchletWithProperties.cancel() - @Cancel #" + count);
+        logger.fine("MyBatchletWithProperties.cancel() - @Cancel #" + count.get());
     }
 
 
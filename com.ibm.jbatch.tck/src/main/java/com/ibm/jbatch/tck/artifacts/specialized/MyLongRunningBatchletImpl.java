@@ -26,6 +26,7 @@ import javax.batch.runtime.context.StepContext;
 import javax.inject.Inject;
 
 import com.ibm.jbatch.tck.artifacts.reusable.StopOnBulletinBoardTestData;
+import com.ibm.jbatch.tck.polling.TCKRunningNotifier;
 
 // NOTE:  We do NOT use the default @Named value in this special case, like we usually do.
 // Be careful generating the batch.xml !!  
@@ -92,6 +93,9 @@ public class MyLongRunningBatchletImpl extends AbstractBatchlet {
 
 		this.begin();
 
+		// Let a test waiting to stop us know we're in the loop now
+		TCKRunningNotifier.running(jobCtx.getExecutionId());
+
 		int i = 0;
 		int numTimesToRun = 500;
 		boolean maxTimesReached = false;
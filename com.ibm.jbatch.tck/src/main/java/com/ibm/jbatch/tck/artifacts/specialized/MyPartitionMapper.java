@@ -45,6 +45,11 @@ public class MyPartitionMapper implements PartitionMapper {
     @BatchProperty
     private String partitionsOverride = null;
 
+    // Optional, defaults to one thread per partition
+    @Inject
+    @BatchProperty
+    private String numThreadsProp = null;
+
 	
 	@Override
 	public PartitionPlan mapPartitions() throws Exception {
@@ -68,6 +73,9 @@ public class MyPartitionMapper implements PartitionMapper {
 		PartitionPlan partitionPlan = new MyPartitionPlan();
 		partitionPlan.setPartitions(numPartitions);
 		partitionPlan.setPartitionProperties(props);
+		if (numThreadsProp != null && !numThreadsProp.isEmpty()) {
+		    partitionPlan.setThreads(Integer.parseInt(numThreadsProp));
+		}
 		if ("true".equals(partitionsOverride)) {
 		    partitionPlan.setPartitionsOverride(true);
 		} else {
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.tck.polling;
+
+import java.util.Random;
+
+/**
+ * The intervals at which the TCK waiters poll the job repository (via JobOperator.getJobExecution()).
+ *
+ * A "fixed" schedule always sleeps the same interval (what the TCK has always done).  A "backoff"
+ * schedule starts with a very short first probe and grows the interval geometrically up to a cap,
+ * with some random jitter so that many concurrent waiters don't all hit the repository together.
+ *
+ * Instances are immutable and may be shared by any number of waiters.
+ */
+public class PollSchedule {
+
+	public static final String FIXED = "fixed";
+	public static final String BACKOFF = "backoff";
+
+	private static final Random random = new Random();
+
+	private final String type;
+	private final long initialInterval;
+	private final long maxInterval;
+	private final double multiplier;
+	private final double jitter;
+
+	private PollSchedule(String type, long initialInterval, long maxInterval, double multiplier, double jitter) {
+		if (initialInterval < 0 || maxInterval < initialInterval) {
+			throw new IllegalArgumentException("Invalid poll intervals, initial = " + initialInterval + ", max = " + maxInterval);
+		}
+		if (multiplier < 1 || jitter < 0 || jitter >= 1) {
+			throw new IllegalArgumentException("Invalid poll backoff, multiplier = " + multiplier + ", jitter = " + jitter);
+		}
+		this.type = type;
+		this.initialInterval = initialInterval;
+		this.maxInterval = maxInterval;
+		this.multiplier = multiplier;
+		this.jitter = jitter;
+	}
+
+	public static PollSchedule fixed(long interval) {
+		return new PollSchedule(FIXED, interval, interval, 1, 0);
+	}
+
+	/**
+	 * @param initialInterval Interval before the first poll, in milliseconds
+	 * @param maxInterval Cap on the interval, in milliseconds
+	 * @param multiplier Factor each interval grows by over the previous one
+	 * @param jitter Fraction (0 <= jitter < 1) by which each interval is randomly shortened or lengthened
+	 */
+	public static PollSchedule backoff(long initialInterval, long maxInterval, double multiplier, double jitter) {
+		return new PollSchedule(BACKOFF, initialInterval, maxInterval, multiplier, jitter);
+	}
+
+	/**
+	 * @param pollsSoFar Number of times the repository has already been polled during this wait
+	 * @return Time to sleep before the next poll, in milliseconds
+	 */
+	public long nextInterval(int pollsSoFar) {
+		double interval = initialInterval * Math.pow(multiplier, pollsSoFar);
+		if (interval > maxInterval) {
+			interval = maxInterval;
+		}
+		if (jitter > 0) {
+			interval = interval * (1 + jitter * (2 * random.nextDouble() - 1));
+		}
+		return Math.round(interval);
+	}
+
+	@Override
+	public String toString() {
+		if (FIXED.equals(type)) {
+			return type + "(" + initialInterval + " ms)";
+		}
+		return type + "(initial = " + initialInterval + " ms, max = " + maxInterval + " ms, multiplier = " + multiplier + ", jitter = " + jitter + ")";
+	}
+}
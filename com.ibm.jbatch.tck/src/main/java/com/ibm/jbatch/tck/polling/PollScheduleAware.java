@@ -0,0 +1,31 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.tck.polling;
+
+/**
+ * Implemented by the TCK's own waiter factories (not part of the SPI), so
+ * JobOperatorBridge can pass along the configured poll schedule.
+ */
+public interface PollScheduleAware {
+
+	/**
+	 * Replaces the default fixed 100 ms schedule, for waiters created from now on.
+	 *
+	 * @param pollSchedule
+	 */
+	void setPollSchedule(PollSchedule pollSchedule);
+}
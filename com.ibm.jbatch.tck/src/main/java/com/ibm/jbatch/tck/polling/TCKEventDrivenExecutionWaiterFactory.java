@@ -0,0 +1,194 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.tck.polling;
+
+import javax.batch.operations.JobOperator;
+import javax.batch.operations.JobSecurityException;
+import javax.batch.operations.NoSuchJobExecutionException;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+import java.lang.IllegalStateException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import com.ibm.jbatch.tck.spi.JobExecutionWaiter;
+import com.ibm.jbatch.tck.spi.JobExecutionWaiterFactory;
+import com.ibm.jbatch.tck.spi.JobExecutionTimeoutException;
+
+/**
+ * Implementation of the TCK "porting package" JobExecutionWaiterFactory SPI
+ * which is woken up by the TerminationNotifyingJobListener, in the JSL of the
+ * jobs that include it, rather than sleeping a full poll interval each time.
+ *
+ * Not the default: select it with the tck.execution.waiter.factory system
+ * property (see ServiceGateway).  It only helps when the jobs run in the same
+ * JVM as the TCK, and the TCK's own test jobs don't include the listener.
+ *
+ * Since afterJob() is called before the runtime necessarily sets the final
+ * batch status and exit status, a notification only means that it's worth
+ * checking now.  Until the exit status is non-null we keep polling, at a
+ * short interval after a notification and at the usual interval otherwise
+ * (e.g. for a job whose JSL doesn't include the listener, or which runs
+ * in another JVM).
+ */
+public class TCKEventDrivenExecutionWaiterFactory implements JobExecutionWaiterFactory, PollScheduleAware {
+
+    private final static String sourceClass = TCKEventDrivenExecutionWaiterFactory.class.getName();
+    private final static Logger logger = Logger.getLogger(sourceClass);
+
+	private final int POLL_INTERVAL = 100; // .1 second
+	private final int NOTIFIED_POLL_INTERVAL = 5; // .005 second
+
+	private PollSchedule pollSchedule = PollSchedule.fixed(POLL_INTERVAL);
+
+	/**
+	 * Only applies while no notification has been received.
+	 */
+	@Override
+	public void setPollSchedule(PollSchedule pollSchedule) {
+		this.pollSchedule = pollSchedule;
+	}
+
+	/**
+	 * Registers the execution id for notification right away, so a job which ends before
+	 * awaitTermination() is called is not missed.
+	 *
+	 * @param executionId
+	 * @param JobOperator
+	 * @param timeout In milliseconds
+	 * @return JobExecutionWaiter
+	 */
+	@Override
+	public JobExecutionWaiter createWaiter(long executionId, JobOperator jobOp, long timeout) {
+		return new TCKEventDrivenExecutionWaiter(executionId, jobOp, timeout, pollSchedule);
+	}
+
+	private class TCKEventDrivenExecutionWaiter implements JobExecutionWaiter, PollingStatistics {
+
+		private long executionId;
+		private JobOperator jobOp;
+		private long timeout;
+		private PollSchedule pollSchedule;
+		private CountDownLatch latch;
+		private int repositoryReads = 0;
+
+		private TCKEventDrivenExecutionWaiter(long executionId, JobOperator jobOp, long timeout, PollSchedule pollSchedule) {
+			logger.fine("Creating waiter for executionId = " + executionId + ", jobOp = " + jobOp + ", timeout = " + timeout + ", pollSchedule = " + pollSchedule);
+			this.executionId = executionId;
+			this.jobOp = jobOp;
+			this.timeout = timeout;
+			this.pollSchedule = pollSchedule;
+			this.latch = TCKTerminationNotifier.latchFor(executionId);
+		}
+
+		@Override
+		public int getRepositoryReads() {
+			return repositoryReads;
+		}
+
+		@Override
+
+		/**
+		 * Wait for
+		 *   1) BatchStatus to be one of: STOPPED ,FAILED , COMPLETED, ABANDONED
+		 *     AND
+		 *   2) exitStatus to be non-null
+		 * @return JobExceution
+		 */
+		public JobExecution awaitTermination() throws JobExecutionTimeoutException {
+			logger.fine("Entering awaitTermination for executionId = " + executionId);
+			JobExecution jobExecution = null;
+
+			long startTime = System.currentTimeMillis();
+
+			try {
+				while (true) {
+					try {
+						long curTime = System.currentTimeMillis();
+						timeOutIfExpired(startTime, curTime);
+						if (latch.getCount() == 0) {
+							logger.finer("Already notified, sleeping for " + NOTIFIED_POLL_INTERVAL);
+							Thread.sleep(NOTIFIED_POLL_INTERVAL);
+						} else {
+							long interval = pollSchedule.nextInterval(repositoryReads);
+							logger.finer("Waiting for notification for up to " + interval);
+							latch.await(interval, TimeUnit.MILLISECONDS);
+						}
+						logger.finer("Wake up, check for termination.");
+						jobExecution = jobOp.getJobExecution(executionId);
+						repositoryReads++;
+						if (isTerminated(jobExecution)) {
+							break;
+						}
+					} catch (InterruptedException e) {
+						throw new IllegalStateException("Aborting on interrupt", e);
+					} catch (JobSecurityException e) {
+						throw new IllegalStateException("Aborting on security (authorization) exception", e);
+					} catch (NoSuchJobExecutionException e) {
+						throw new IllegalStateException("JobExecution disappeared for exec id =" + executionId);
+					}
+				}
+			} finally {
+				TCKTerminationNotifier.unregister(executionId);
+			}
+			logger.fine("Exiting awaitTermination for executionId = " + executionId + " after " + repositoryReads + " repository reads");
+			return jobExecution;
+		}
+
+		private boolean isTerminated(JobExecution jobExecution) {
+			boolean retVal = false;
+			BatchStatus bs = jobExecution.getBatchStatus();
+			if (terminatedStatuses.contains(bs)) {
+				logger.fine("Found terminating batch status of: " + jobExecution.getBatchStatus().name());
+				if (jobExecution.getExitStatus() != null) {
+					logger.fine("Found exit status of: " + jobExecution.getExitStatus());
+					retVal = true;
+				} else {
+					logger.fine("Exit status is still 'null'.  Poll again.");
+					retVal = false;
+				}
+			} else {
+				logger.finer("Found non-terminating batch status of: " + jobExecution.getBatchStatus().name());
+				retVal = false;
+			}
+			return retVal;
+		}
+		private void timeOutIfExpired(long startTime, long curTime) {
+			long diff = curTime - startTime;
+			if (diff > timeout) {
+				logger.warning("Timed out waiting for TCK Job Execution to reach terminated status.  Time elapsed (long msec) = " + diff + ", and timeout = " + timeout);
+				throw new IllegalStateException("Timed out waiting for TCK Job Execution to reach terminated status.  Time elapsed (long msec) = " + diff + ", and timeout = " + timeout);
+			} else {
+				logger.finer("Still waiting for TCK Job Execution to reach terminated status.  Time elapsed (long msec) = " + diff + ", and timeout = " + timeout);
+			}
+		}
+	}
+
+	// Full list:
+	//public enum BatchStatus {STARTING, STARTED, STOPPING, STOPPED, FAILED, COMPLETED, ABANDONED }
+	private static Set<BatchStatus> terminatedStatuses = new HashSet<BatchStatus>();
+	static {
+		terminatedStatuses.add(BatchStatus.STOPPED);
+		terminatedStatuses.add(BatchStatus.FAILED);
+		terminatedStatuses.add(BatchStatus.COMPLETED);
+		terminatedStatuses.add(BatchStatus.ABANDONED);
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.tck.polling;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.batch.runtime.JobExecution;
+
+/**
+ * A Future for the terminated JobExecution, completed by whichever thread
+ * notices the termination (rather than by running a task, as FutureTask would).
+ */
+public class TCKJobExecutionFuture implements Future<JobExecution> {
+
+	private final long executionId;
+	private final CountDownLatch done = new CountDownLatch(1);
+	private volatile JobExecution jobExecution = null;
+	private volatile Throwable failure = null;
+	private volatile boolean cancelled = false;
+
+	public TCKJobExecutionFuture(long executionId) {
+		this.executionId = executionId;
+	}
+
+	public long getExecutionId() {
+		return executionId;
+	}
+
+	/**
+	 * @return true if this call completed the future, false if it was already done
+	 */
+	public synchronized boolean complete(JobExecution jobExecution) {
+		if (isDone()) {
+			return false;
+		}
+		this.jobExecution = jobExecution;
+		done.countDown();
+		return true;
+	}
+
+	/**
+	 * @return true if this call completed the future, false if it was already done
+	 */
+	public synchronized boolean fail(Throwable failure) {
+		if (isDone()) {
+			return false;
+		}
+		this.failure = failure;
+		done.countDown();
+		return true;
+	}
+
+	/**
+	 * Only stops the wait, of course, not the job execution.
+	 */
+	@Override
+	public synchronized boolean cancel(boolean mayInterruptIfRunning) {
+		if (isDone()) {
+			return false;
+		}
+		cancelled = true;
+		done.countDown();
+		return true;
+	}
+
+	@Override
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	@Override
+	public boolean isDone() {
+		return done.getCount() == 0;
+	}
+
+	@Override
+	public JobExecution get() throws InterruptedException, ExecutionException {
+		done.await();
+		return result();
+	}
+
+	@Override
+	public JobExecution get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+		if (!done.await(timeout, unit)) {
+			throw new TimeoutException("Still waiting for termination of execution id = " + executionId);
+		}
+		return result();
+	}
+
+	private JobExecution result() throws ExecutionException {
+		if (cancelled) {
+			throw new CancellationException("Wait cancelled for execution id = " + executionId);
+		}
+		if (failure != null) {
+			throw new ExecutionException(failure);
+		}
+		return jobExecution;
+	}
+}
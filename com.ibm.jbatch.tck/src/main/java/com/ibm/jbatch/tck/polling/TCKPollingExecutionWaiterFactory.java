@@ -38,15 +38,23 @@ import com.ibm.jbatch.tck.spi.JobExecutionTimeoutException;
  * waiting for completion.  Uses private inner class TCKPollingExecutionWaiter
  * to perform this.
  */
-public class TCKPollingExecutionWaiterFactory implements JobExecutionWaiterFactory {
+public class TCKPollingExecutionWaiterFactory implements JobExecutionWaiterFactory, PollScheduleAware {
 
     private final static String sourceClass = TCKPollingExecutionWaiterFactory.class.getName();
     private final static Logger logger = Logger.getLogger(sourceClass);
     
 	private final int POLL_INTERVAL = 100; // .1 second
 
+	private PollSchedule pollSchedule = PollSchedule.fixed(POLL_INTERVAL);
+
+	@Override
+	public void setPollSchedule(PollSchedule pollSchedule) {
+		this.pollSchedule = pollSchedule;
+	}
+
 	/**
 	 * This implementation does no pooling of any kind, it just creates a new instance with new thread each time.
+	 * (See TCKSharedPollingExecutionWaiterFactory for one which polls every execution from a single thread.)
 	 * 
 	 * @param executionId
 	 * @param JobOperator 
@@ -55,20 +63,28 @@ public class TCKPollingExecutionWaiterFactory implements JobExecutionWaiterFacto
 	 */
 	@Override
 	public JobExecutionWaiter createWaiter(long executionId, JobOperator jobOp, long timeout) {
-		return new TCKPollingExecutionWaiter(executionId, jobOp, timeout);
+		return new TCKPollingExecutionWaiter(executionId, jobOp, timeout, pollSchedule);
 	}
 
-	private class TCKPollingExecutionWaiter implements JobExecutionWaiter {
+	private class TCKPollingExecutionWaiter implements JobExecutionWaiter, PollingStatistics {
 
 		private long executionId;
 		private JobOperator jobOp;
 		private long timeout;
+		private PollSchedule pollSchedule;
+		private int repositoryReads = 0;
 
-		private TCKPollingExecutionWaiter(long executionId, JobOperator jobOp, long timeout) {
-			logger.fine("Creating waiter for executionId = " + executionId + ", jobOp = " + jobOp + ", timeout = " + timeout);
+		private TCKPollingExecutionWaiter(long executionId, JobOperator jobOp, long timeout, PollSchedule pollSchedule) {
+			logger.fine("Creating waiter for executionId = " + executionId + ", jobOp = " + jobOp + ", timeout = " + timeout + ", pollSchedule = " + pollSchedule);
 			this.executionId = executionId;
 			this.jobOp = jobOp;
 			this.timeout = timeout;			
+			this.pollSchedule = pollSchedule;
+		}
+
+		@Override
+		public int getRepositoryReads() {
+			return repositoryReads;
 		}
 
 		@Override
@@ -88,12 +104,14 @@ public class TCKPollingExecutionWaiterFactory implements JobExecutionWaiterFacto
 			
 			while (true) {				
 				try {
-					logger.finer("Sleeping for " + POLL_INTERVAL);
+					long interval = pollSchedule.nextInterval(repositoryReads);
+					logger.finer("Sleeping for " + interval);
 					long curTime = System.currentTimeMillis();
 					timeOutIfExpired(startTime, curTime);
-					Thread.sleep(POLL_INTERVAL);
+					Thread.sleep(interval);
 					logger.finer("Wake up, check for termination.");
-					 jobExecution = jobOp.getJobExecution(executionId);
+					jobExecution = jobOp.getJobExecution(executionId);
+					repositoryReads++;
 					if (isTerminated(jobExecution)) {
 						break;
 					}
@@ -105,6 +123,7 @@ public class TCKPollingExecutionWaiterFactory implements JobExecutionWaiterFacto
 					throw new IllegalStateException("JobExecution disappeared for exec id =" + executionId);
 				}
 			}
+			logger.fine("Exiting awaitTermination for executionId = " + executionId + " after " + repositoryReads + " repository reads");
 			return jobExecution;
 		}
 
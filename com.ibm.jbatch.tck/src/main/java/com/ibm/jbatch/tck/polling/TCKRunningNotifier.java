@@ -0,0 +1,132 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.polling;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
+
+/**
+ * Registry of per-execution arrival counts, shared between long-running TCK artifacts
+ * (which signal once they are actually running) and the tests that need to act on a running
+ * execution, e.g. stop it.  This replaces sleeping for a fixed time and hoping the job has
+ * gotten far enough by then.
+ *
+ * Each partition of a partitioned step signals separately (with the top-level execution id),
+ * so a test can wait for all the partitions to be running.
+ *
+ * Either side may arrive first, and this only works when the job runs in the same JVM as the TCK test.
+ * Signals for executions nobody waits for are dropped at the end of the job by the
+ * TerminationNotifyingJobListener, where the JSL includes it, and otherwise once they are older than
+ * {@link #EXPIRY}.
+ */
+public class TCKRunningNotifier {
+
+	private final static Logger logger = Logger.getLogger(TCKRunningNotifier.class.getName());
+
+	/**
+	 * Far longer than any test waits for an execution to be running, in milliseconds.
+	 */
+	public static final long EXPIRY = 30 * 60 * 1000;
+
+	private static ConcurrentMap<Long, Arrivals> arrivals = new ConcurrentHashMap<Long, Arrivals>();
+
+	private static Arrivals arrivalsFor(long executionId) {
+		Arrivals a = arrivals.get(executionId);
+		if (a == null) {
+			Arrivals newArrivals = new Arrivals();
+			a = arrivals.putIfAbsent(executionId, newArrivals);
+			if (a == null) {
+				a = newArrivals;
+			}
+		}
+		return a;
+	}
+
+	/**
+	 * Called by an artifact once it is running.
+	 *
+	 * @param executionId
+	 */
+	public static void running(long executionId) {
+		logger.fine("Signaling running artifact for executionId = " + executionId);
+		arrivalsFor(executionId).arrive();
+		expireOldEntries();
+	}
+
+	private static void expireOldEntries() {
+		long cutoff = System.currentTimeMillis() - EXPIRY;
+		Iterator<Arrivals> i = arrivals.values().iterator();
+		while (i.hasNext()) {
+			if (i.next().created < cutoff) {
+				i.remove();
+			}
+		}
+	}
+
+	/**
+	 * Waits until the given number of artifacts have signaled they are running for this execution,
+	 * then forgets about the execution.
+	 *
+	 * @param executionId
+	 * @param parties Number of signals to wait for, e.g. the number of partitions
+	 * @param timeout In milliseconds
+	 * @return false if timed out
+	 * @throws InterruptedException
+	 */
+	public static boolean awaitRunning(long executionId, int parties, long timeout) throws InterruptedException {
+		try {
+			return arrivalsFor(executionId).await(parties, timeout);
+		} finally {
+			arrivals.remove(executionId);
+		}
+	}
+
+	/**
+	 * Called by the job listener once the job has reached afterJob(), by which time nobody
+	 * should be waiting for it to be running any more.
+	 *
+	 * @param executionId
+	 */
+	public static void jobEnded(long executionId) {
+		arrivals.remove(executionId);
+	}
+
+	private static class Arrivals {
+
+		private final long created = System.currentTimeMillis();
+		private int count = 0;
+
+		private synchronized void arrive() {
+			count++;
+			notifyAll();
+		}
+
+		private synchronized boolean await(int parties, long timeout) throws InterruptedException {
+			long deadline = System.currentTimeMillis() + timeout;
+			while (count < parties) {
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
+					return false;
+				}
+				wait(remaining);
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.tck.polling;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.batch.operations.JobOperator;
+import javax.batch.operations.JobSecurityException;
+import javax.batch.operations.NoSuchJobExecutionException;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+
+import com.ibm.jbatch.tck.spi.AsyncJobExecutionWaiter;
+import com.ibm.jbatch.tck.spi.JobExecutionTimeoutException;
+import com.ibm.jbatch.tck.spi.JobExecutionWaiter;
+import com.ibm.jbatch.tck.spi.JobExecutionWaiterFactory;
+
+/**
+ * Implementation of the TCK "porting package" JobExecutionWaiterFactory SPI
+ * in which a single, shared poller thread checks on every outstanding
+ * execution, instead of each waiter sleeping and polling on its own thread.
+ *
+ * Each execution is registered with the poller when its waiter is created, and
+ * the poller completes a per-execution future once the execution terminates
+ * (or times out).  awaitTermination() then only blocks on that future.  So many
+ * executions in flight at once cost one polling thread, not one per execution.
+ *
+ * Each execution is polled on its own schedule; the poller just sleeps until the
+ * next execution is due.
+ */
+public class TCKSharedPollingExecutionWaiterFactory implements JobExecutionWaiterFactory, PollScheduleAware {
+
+	private final static String sourceClass = TCKSharedPollingExecutionWaiterFactory.class.getName();
+	private final static Logger logger = Logger.getLogger(sourceClass);
+
+	private final int POLL_INTERVAL = 100; // .1 second
+
+	private PollSchedule pollSchedule = PollSchedule.fixed(POLL_INTERVAL);
+
+	// Shared across factory instances, since each JobOperatorBridge loads its own factory.
+	private static final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, "TCK shared execution poller");
+			t.setDaemon(true);
+			return t;
+		}
+	});
+
+	private static final Queue<PendingExecution> pending = new ConcurrentLinkedQueue<PendingExecution>();
+
+	// Time of the earliest sweep already scheduled, or Long.MAX_VALUE if none.
+	private static long nextSweepTime = Long.MAX_VALUE;
+
+	@Override
+	public void setPollSchedule(PollSchedule pollSchedule) {
+		this.pollSchedule = pollSchedule;
+	}
+
+	/**
+	 * Starts polling for this execution right away, not on the call to awaitTermination(),
+	 * so the timeout also counts from here.
+	 *
+	 * @param executionId
+	 * @param JobOperator
+	 * @param timeout In milliseconds
+	 * @return JobExecutionWaiter
+	 */
+	@Override
+	public JobExecutionWaiter createWaiter(long executionId, JobOperator jobOp, long timeout) {
+		logger.fine("Creating waiter for executionId = " + executionId + ", jobOp = " + jobOp + ", timeout = " + timeout + ", pollSchedule = " + pollSchedule);
+		PendingExecution execution = new PendingExecution(executionId, jobOp, timeout, pollSchedule);
+		pending.add(execution);
+		scheduleSweep(execution.nextPollTime);
+		return new TCKSharedPollingExecutionWaiter(execution);
+	}
+
+	private static synchronized void scheduleSweep(long time) {
+		if (time >= nextSweepTime) {
+			return;
+		}
+		nextSweepTime = time;
+		long delay = Math.max(0, time - System.currentTimeMillis());
+		poller.schedule(new Runnable() {
+			@Override
+			public void run() {
+				sweep();
+			}
+		}, delay, TimeUnit.MILLISECONDS);
+	}
+
+	/*
+	 * Only ever runs on the poller thread.
+	 */
+	private static void sweep() {
+		synchronized (TCKSharedPollingExecutionWaiterFactory.class) {
+			// Anything registered from now on schedules its own sweep, anything earlier is seen below.
+			nextSweepTime = Long.MAX_VALUE;
+		}
+
+		long now = System.currentTimeMillis();
+		long nextDue = Long.MAX_VALUE;
+		int polled = 0;
+		for (Iterator<PendingExecution> it = pending.iterator(); it.hasNext();) {
+			PendingExecution execution = it.next();
+			if (execution.future.isDone()) {
+				// Cancelled
+				it.remove();
+				continue;
+			}
+			if (execution.nextPollTime <= now || execution.deadline <= now) {
+				polled++;
+				if (execution.poll(now)) {
+					it.remove();
+					continue;
+				}
+			}
+			nextDue = Math.min(nextDue, Math.min(execution.nextPollTime, execution.deadline));
+		}
+		if (logger.isLoggable(Level.FINER)) {
+			logger.finer("Swept " + polled + " executions, " + pending.size() + " still pending");
+		}
+
+		if (nextDue != Long.MAX_VALUE) {
+			scheduleSweep(nextDue);
+		}
+	}
+
+	private static class PendingExecution {
+
+		private final long executionId;
+		private final JobOperator jobOp;
+		private final long timeout;
+		private final long deadline;
+		private final PollSchedule pollSchedule;
+		private final TCKJobExecutionFuture future;
+		private volatile int repositoryReads = 0;
+		private long nextPollTime;
+
+		private PendingExecution(long executionId, JobOperator jobOp, long timeout, PollSchedule pollSchedule) {
+			long now = System.currentTimeMillis();
+			this.executionId = executionId;
+			this.jobOp = jobOp;
+			this.timeout = timeout;
+			this.deadline = now + timeout;
+			this.pollSchedule = pollSchedule;
+			this.future = new TCKJobExecutionFuture(executionId);
+			this.nextPollTime = now + pollSchedule.nextInterval(0);
+		}
+
+		/**
+		 * @return true if the future has been completed, one way or the other
+		 */
+		private boolean poll(long now) {
+			if (now > deadline) {
+				long diff = now - (deadline - timeout);
+				logger.warning("Timed out waiting for TCK Job Execution to reach terminated status.  Time elapsed (long msec) = " + diff + ", and timeout = " + timeout);
+				future.fail(new JobExecutionTimeoutException("Timed out waiting for TCK Job Execution to reach terminated status.  Time elapsed (long msec) = " + diff + ", and timeout = " + timeout));
+				return true;
+			}
+			try {
+				JobExecution jobExecution = jobOp.getJobExecution(executionId);
+				repositoryReads++;
+				if (isTerminated(jobExecution)) {
+					logger.fine("Found terminated execution for executionId = " + executionId + " after " + repositoryReads + " repository reads");
+					future.complete(jobExecution);
+					return true;
+				}
+			} catch (RuntimeException e) {
+				// Don't let one bad execution take down the poller thread.
+				future.fail(e);
+				return true;
+			}
+			nextPollTime = now + pollSchedule.nextInterval(repositoryReads);
+			return false;
+		}
+	}
+
+	private class TCKSharedPollingExecutionWaiter implements AsyncJobExecutionWaiter, PollingStatistics {
+
+		private PendingExecution execution;
+
+		private TCKSharedPollingExecutionWaiter(PendingExecution execution) {
+			this.execution = execution;
+		}
+
+		@Override
+		public int getRepositoryReads() {
+			return execution.repositoryReads;
+		}
+
+		/**
+		 * The poller completes this anyway, so no extra thread is involved.
+		 */
+		@Override
+		public Future<JobExecution> awaitTerminationAsync() {
+			return execution.future;
+		}
+
+		/**
+		 * Wait for
+		 *   1) BatchStatus to be one of: STOPPED ,FAILED , COMPLETED, ABANDONED
+		 *     AND
+		 *   2) exitStatus to be non-null
+		 * @return JobExceution
+		 */
+		@Override
+		public JobExecution awaitTermination() throws JobExecutionTimeoutException {
+			logger.fine("Entering awaitTermination for executionId = " + execution.executionId);
+			try {
+				return execution.future.get();
+			} catch (InterruptedException e) {
+				execution.future.cancel(false);
+				throw new IllegalStateException("Aborting on interrupt", e);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof JobExecutionTimeoutException) {
+					throw (JobExecutionTimeoutException) cause;
+				} else if (cause instanceof JobSecurityException) {
+					throw new IllegalStateException("Aborting on security (authorization) exception", cause);
+				} else if (cause instanceof NoSuchJobExecutionException) {
+					throw new IllegalStateException("JobExecution disappeared for exec id =" + execution.executionId);
+				} else {
+					throw new IllegalStateException("Aborting on exception while polling for exec id =" + execution.executionId, cause);
+				}
+			}
+		}
+	}
+
+	private static boolean isTerminated(JobExecution jobExecution) {
+		if (!terminatedStatuses.contains(jobExecution.getBatchStatus())) {
+			return false;
+		}
+		// Poll again until the exit status is set too
+		return jobExecution.getExitStatus() != null;
+	}
+
+	// Full list:
+	//public enum BatchStatus {STARTING, STARTED, STOPPING, STOPPED, FAILED, COMPLETED, ABANDONED }
+	private static Set<BatchStatus> terminatedStatuses = new HashSet<BatchStatus>();
+	static {
+		terminatedStatuses.add(BatchStatus.STOPPED);
+		terminatedStatuses.add(BatchStatus.FAILED);
+		terminatedStatuses.add(BatchStatus.COMPLETED);
+		terminatedStatuses.add(BatchStatus.ABANDONED);
+	}
+}
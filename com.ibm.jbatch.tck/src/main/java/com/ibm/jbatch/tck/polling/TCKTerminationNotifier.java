@@ -0,0 +1,74 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ibm.jbatch.tck.polling;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Logger;
+
+/**
+ * Registry of per-execution latches shared between the TCK-supplied job listener
+ * (which counts the latch down from afterJob()) and the event-driven waiter
+ * (which blocks on it).
+ *
+ * The waiter registers through {@link #latchFor(long)}, which creates the latch, and
+ * removes the entry when it is done.  The end of a job removes the entry itself, so
+ * executions nobody waits for leave nothing behind; a waiter created only after the
+ * job has ended is then never notified and just polls.
+ *
+ * This only works when the job runs in the same JVM as the TCK test; otherwise
+ * the latch is simply never counted down and the waiter falls back to polling.
+ */
+public class TCKTerminationNotifier {
+
+	private final static Logger logger = Logger.getLogger(TCKTerminationNotifier.class.getName());
+
+	private static ConcurrentMap<Long, CountDownLatch> latches = new ConcurrentHashMap<Long, CountDownLatch>();
+
+	static CountDownLatch latchFor(long executionId) {
+		CountDownLatch latch = latches.get(executionId);
+		if (latch == null) {
+			CountDownLatch newLatch = new CountDownLatch(1);
+			latch = latches.putIfAbsent(executionId, newLatch);
+			if (latch == null) {
+				latch = newLatch;
+			}
+		}
+		return latch;
+	}
+
+	static void unregister(long executionId) {
+		latches.remove(executionId);
+	}
+
+	/**
+	 * Called by the job listener once the job has reached afterJob().  Note the
+	 * runtime has not necessarily persisted the final batch and exit status yet.
+	 *
+	 * @param executionId
+	 */
+	public static void jobEnded(long executionId) {
+		CountDownLatch latch = latches.remove(executionId);
+		if (latch != null) {
+			logger.fine("Signaling end of job for executionId = " + executionId);
+			latch.countDown();
+		} else {
+			logger.fine("No waiter registered for executionId = " + executionId);
+		}
+	}
+}
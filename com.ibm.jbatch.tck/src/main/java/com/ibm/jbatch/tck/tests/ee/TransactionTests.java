@@ -30,7 +30,7 @@ import javax.batch.runtime.StepExecution;
 import com.ibm.jbatch.tck.utils.JobOperatorBridge;
 import com.ibm.jbatch.tck.utils.TCKJobExecutionWrapper;
 
-import org.junit.BeforeClass;
+import org.junit.Before;
 import org.junit.Ignore;
 import org.testng.Reporter;
 import org.testng.annotations.AfterClass;
@@ -44,9 +44,15 @@ public class TransactionTests {
 
 	private final static Logger logger = Logger.getLogger(TransactionTests.class.getName());
 
-	private static JobOperatorBridge jobOp;
+	private JobOperatorBridge jobOp;
 
-	public static void setup(String[] args, Properties props) throws Exception {
+	// Set to "true" to have the writers use JDBC batch updates, e.g. for a long run with a large initInventory
+	private final String batchWrites = System.getProperty("TransactionTests.batch.writes", "false");
+
+	// Set to "true" to have InventoryReader read the inventory once, and decrement it once per chunk, rather than per item
+	private final String streamingReads = System.getProperty("TransactionTests.streaming.reads", "false");
+
+	public void setup(String[] args, Properties props) throws Exception {
 		String METHOD = "setup";
 
 		try {
@@ -57,13 +63,13 @@ public class TransactionTests {
 	}
 
 	@BeforeMethod
-	@BeforeClass
-	public static void setUp() throws Exception {
+	@Before
+	public void setUp() throws Exception {
 		jobOp = new JobOperatorBridge();
 	}
 
 	@AfterClass
-	public static void cleanup() throws Exception {
+	public void cleanup() throws Exception {
 	}
 
 	private void begin(String str) {
@@ -106,6 +112,8 @@ public class TransactionTests {
 			jobParams.put("forced.fail.count.write", forcedFailCountWrite.toString());
 			jobParams.put("forced.fail.count.process", forcedFailCountProcess.toString());
 			jobParams.put("dummy.delay.seconds", dummyDelay.toString());
+			jobParams.put("batch.writes", batchWrites);
+			jobParams.put("streaming.reads", streamingReads);
 			jobParams.put("rollback", rollback.toString());
 			jobParams.put("auto.commit", autoCommit.toString());
 
@@ -154,6 +162,8 @@ public class TransactionTests {
 			jobParams.put("forced.fail.count.write", forcedFailCountWrite.toString());
 			jobParams.put("forced.fail.count.process", forcedFailCountProcess.toString());
 			jobParams.put("dummy.delay.seconds", dummyDelay.toString());
+			jobParams.put("batch.writes", batchWrites);
+			jobParams.put("streaming.reads", streamingReads);
 			jobParams.put("rollback", rollback.toString());
 			jobParams.put("auto.commit", autoCommit.toString());
 
@@ -202,6 +212,8 @@ public class TransactionTests {
 			jobParams.put("forced.fail.count.write", forcedFailCountWrite.toString());
 			jobParams.put("forced.fail.count.process", forcedFailCountProcess.toString());
 			jobParams.put("dummy.delay.seconds", dummyDelay.toString());
+			jobParams.put("batch.writes", batchWrites);
+			jobParams.put("streaming.reads", streamingReads);
 			jobParams.put("rollback", rollback.toString());
 			jobParams.put("auto.commit", autoCommit.toString());
 
@@ -229,9 +241,11 @@ public class TransactionTests {
 		String DEFAULT_SLEEP_TIME = "0";
 
 		try {
-			Integer initInventory = 99;
+			Integer initInventory = 
+					Integer.parseInt(System.getProperty("TransactionTests.testGlobalTranNoExceptions.initInventory","99"));
 			Integer forcedFailCount = 0;
-			Integer itemCount = 5;
+			Integer itemCount = 
+					Integer.parseInt(System.getProperty("TransactionTests.testGlobalTranNoExceptions.commitInterval","5"));
 			Integer dummyDelay = 
 					Integer.parseInt(System.getProperty("TransactionTests.testGlobalTranNoExceptions.sleep",DEFAULT_SLEEP_TIME));
 
@@ -246,12 +260,16 @@ public class TransactionTests {
 			Reporter.log("init.inventory.quantity="+initInventory.toString()+"<p>");
 			Reporter.log("forced.fail.count="+forcedFailCount.toString()+"<p>");
 			Reporter.log("dummy.delay.seconds="+dummyDelay.toString()+"<p>");
+			Reporter.log("batch.writes="+batchWrites+"<p>");
+			Reporter.log("streaming.reads="+streamingReads+"<p>");
 			Reporter.log("expected.inventory="+expectedInventory.toString()+"<p>");
 			jobParams.put("javax.transaction.global.timeout", "300");
 			jobParams.put("commit.interval", itemCount.toString());
 			jobParams.put("init.inventory.quantity", initInventory.toString());
 			jobParams.put("forced.fail.count", forcedFailCount.toString());
 			jobParams.put("dummy.delay.seconds", dummyDelay.toString());
+			jobParams.put("batch.writes", batchWrites);
+			jobParams.put("streaming.reads", streamingReads);
 			jobParams.put("expected.inventory", expectedInventory.toString());
 
 
@@ -306,6 +324,8 @@ public class TransactionTests {
 			jobParams.put("init.inventory.quantity", initInventory.toString());
 			jobParams.put("forced.fail.count", forcedFailCount.toString());
 			jobParams.put("dummy.delay.seconds", dummyDelay.toString());
+			jobParams.put("batch.writes", batchWrites);
+			jobParams.put("streaming.reads", streamingReads);
 			jobParams.put("expected.inventory", expectedInventory.toString());
 
 			Reporter.log("Invoke startJobAndWaitForResult<p>");
@@ -358,6 +378,8 @@ public class TransactionTests {
 			jobParams.put("init.inventory.quantity", initInventory.toString());
 			jobParams.put("forced.fail.count", forcedFailCount.toString());
 			jobParams.put("dummy.delay.seconds", dummyDelay.toString());
+			jobParams.put("batch.writes", batchWrites);
+			jobParams.put("streaming.reads", streamingReads);
 			jobParams.put("expected.inventory", expectedInventory.toString());
 
 
@@ -429,6 +451,8 @@ public class TransactionTests {
 			jobParams.put("init.inventory.quantity", initInventory.toString());
 			jobParams.put("forced.fail.count", forcedFailCount.toString());
 			jobParams.put("dummy.delay.seconds", dummyDelay.toString());
+			jobParams.put("batch.writes", batchWrites);
+			jobParams.put("streaming.reads", streamingReads);
 			jobParams.put("expected.inventory", expectedInventory.toString());
 
 			Reporter.log("Invoke startJobAndWaitForResult<p>");
@@ -492,6 +516,8 @@ public class TransactionTests {
 			jobParams.put("init.inventory.quantity", initInventory.toString());
 			jobParams.put("forced.fail.count", forcedFailCount.toString());
 			jobParams.put("dummy.delay.seconds", dummyDelay.toString());
+			jobParams.put("batch.writes", batchWrites);
+			jobParams.put("streaming.reads", streamingReads);
 
 			Reporter.log("Invoke startJobAndWaitForResult<p>");
 			TCKJobExecutionWrapper jobExec = jobOp.startJobAndWaitForResult("job_chunk_globaltran_multiple_steps",jobParams);
@@ -565,6 +591,8 @@ public class TransactionTests {
 			jobParams.put("init.inventory.quantity", initInventory.toString());
 			jobParams.put("forced.fail.count", forcedFailCount.toString());
 			jobParams.put("dummy.delay.seconds", dummyDelay.toString());
+			jobParams.put("batch.writes", batchWrites);
+			jobParams.put("streaming.reads", streamingReads);
 
 			Reporter.log("Invoke startJobAndWaitForResult<p>");
 			TCKJobExecutionWrapper jobExec = jobOp.startJobAndWaitForResult("job_chunk_globaltran_multiple_steps-customCA",jobParams);
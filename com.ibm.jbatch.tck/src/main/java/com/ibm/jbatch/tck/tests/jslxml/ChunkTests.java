@@ -40,7 +40,7 @@ import com.ibm.jbatch.tck.artifacts.specialized.VerifySkipWriteListener;
 import com.ibm.jbatch.tck.utils.JobOperatorBridge;
 import com.ibm.jbatch.tck.utils.TCKJobExecutionWrapper;
 
-import org.junit.BeforeClass;
+import org.junit.Before;
 import org.junit.Ignore;
 import org.testng.Reporter;
 import org.testng.annotations.BeforeMethod;
@@ -48,9 +48,9 @@ import org.testng.annotations.Test;
 
 public class ChunkTests {
 
-    private static JobOperatorBridge jobOp = null;
+    private JobOperatorBridge jobOp = null;
 
-    public static void setup(String[] args, Properties props) throws Exception {
+    public void setup(String[] args, Properties props) throws Exception {
         String METHOD = "setup";
 
         try {
@@ -61,8 +61,8 @@ public class ChunkTests {
     }
 
     @BeforeMethod
-    @BeforeClass
-    public static void setUp() throws Exception {
+    @Before
+    public void setUp() throws Exception {
         jobOp = new JobOperatorBridge();
     }
 
@@ -26,7 +26,7 @@ import javax.batch.runtime.JobExecution;
 import com.ibm.jbatch.tck.ann.*;
 import com.ibm.jbatch.tck.utils.JobOperatorBridge;
 
-import org.junit.BeforeClass;
+import org.junit.Before;
 import org.junit.Ignore;
 import org.testng.Reporter;
 import org.testng.annotations.AfterClass;
@@ -35,9 +35,9 @@ import org.testng.annotations.Test;
 
 public class ExecutionTests {
 
-	private static JobOperatorBridge jobOp;
+	private JobOperatorBridge jobOp;
 
-	public static void setup(String[] args, Properties props) throws Exception {
+	public void setup(String[] args, Properties props) throws Exception {
 		String METHOD = "setup";
 
 		try {
@@ -48,13 +48,13 @@ public class ExecutionTests {
 	}
 
 	@BeforeMethod
-	@BeforeClass
-	public static void setUp() throws Exception {
+	@Before
+	public void setUp() throws Exception {
 		jobOp = new JobOperatorBridge();
 	}
 
 	@AfterClass
-	public static void cleanup() throws Exception {
+	public void cleanup() throws Exception {
 	}
 
 	private void begin(String str) {
@@ -29,7 +29,7 @@ import javax.batch.runtime.BatchStatus;
 import javax.batch.runtime.JobExecution;
 import javax.batch.runtime.StepExecution;
 
-import org.junit.BeforeClass;
+import org.junit.Before;
 import org.testng.Reporter;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeMethod;
@@ -46,9 +46,9 @@ public class ParallelExecutionTests {
 
 	private static final String TIME_TO_SLEEP_BEFORE_ISSUING_STOP = "1900"; 
 
-	private static JobOperatorBridge jobOp = null;
+	private JobOperatorBridge jobOp = null;
 
-	public static void setup(String[] args, Properties props) throws Exception {
+	public void setup(String[] args, Properties props) throws Exception {
 		String METHOD = "setup";
 
 		try {
@@ -59,13 +59,13 @@ public class ParallelExecutionTests {
 	}
 
 	@BeforeMethod
-	@BeforeClass
-	public static void setUp() throws Exception {
+	@Before
+	public void setUp() throws Exception {
 		jobOp = new JobOperatorBridge();
 	}
 
 	@AfterClass
-	public static void cleanup() throws Exception {
+	public void cleanup() throws Exception {
 	}
 
 
@@ -165,10 +165,10 @@ public class ParallelExecutionTests {
 			Reporter.log("Invoke startJobWithoutWaitingForResult<p>");
 			JobExecution jobExecution =  jobOp.startJobWithoutWaitingForResult("job_batchlet_longrunning_partitioned", overrideJobParams);
 
-			//Sleep long enough for parallel steps to fan out
+			//Wait for all 4 partitions to be running, or for as long as it takes them to fan out
 			int sleepTime = Integer.parseInt(System.getProperty("ParallelExecutionTests.testStopRunningPartitionedStep.sleep",TIME_TO_SLEEP_BEFORE_ISSUING_STOP));
-			Reporter.log("Sleep for " + TIME_TO_SLEEP_BEFORE_ISSUING_STOP);
-			Thread.sleep(sleepTime);
+			Reporter.log("Invoke waitForRunningArtifacts, for at most " + sleepTime + " msec<p>");
+			jobOp.waitForRunningArtifacts(jobExecution, 4, sleepTime);
 
 
 			Reporter.log("Invoke stopJobAndWaitForResult<p>");
@@ -210,10 +210,10 @@ public class ParallelExecutionTests {
 			Reporter.log("Invoke startJobWithoutWaitingForResult<p>");
 			JobExecution origJobExecution = jobOp.startJobWithoutWaitingForResult("job_batchlet_longrunning_partitioned", jobParams);
 
-			// Sleep long enough for parallel steps to fan out
+			// Wait for all 4 partitions to be running, or for as long as it takes them to fan out
 			int sleepTime = Integer.parseInt(System.getProperty("ParallelExecutionTests.testStopRestartRunningPartitionedStep.sleep",TIME_TO_SLEEP_BEFORE_ISSUING_STOP));
-			Reporter.log("Sleep for " + TIME_TO_SLEEP_BEFORE_ISSUING_STOP);
-			Thread.sleep(sleepTime);
+			Reporter.log("Invoke waitForRunningArtifacts, for at most " + sleepTime + " msec<p>");
+			jobOp.waitForRunningArtifacts(origJobExecution, 4, sleepTime);
 
 			Reporter.log("Invoke stopJobAndWaitForResult<p>");
 			jobOp.stopJobAndWaitForResult(origJobExecution);
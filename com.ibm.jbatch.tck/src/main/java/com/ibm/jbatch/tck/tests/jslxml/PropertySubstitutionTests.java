@@ -28,7 +28,7 @@ import javax.batch.runtime.JobExecution;
 import com.ibm.jbatch.tck.ann.*;
 import com.ibm.jbatch.tck.utils.JobOperatorBridge;
 
-import org.junit.BeforeClass;
+import org.junit.Before;
 import org.testng.Reporter;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
@@ -36,9 +36,9 @@ import org.testng.annotations.Test;
 
 public class PropertySubstitutionTests {
 
-	private static JobOperatorBridge jobOp;
+	private JobOperatorBridge jobOp;
 
-	public static void setup(String[] args, Properties props) throws Exception {
+	public void setup(String[] args, Properties props) throws Exception {
 		String METHOD = "setup";
 
 		try {
@@ -49,13 +49,13 @@ public class PropertySubstitutionTests {
 	}
 
 	@BeforeMethod
-	@BeforeClass
-	public static void setUp() throws Exception {
+	@Before
+	public void setUp() throws Exception {
 		jobOp = new JobOperatorBridge();
 	}
 
 	@AfterMethod
-	public static void tearDown() throws Exception {
+	public void tearDown() throws Exception {
 	}
 
 	@AfterMethod
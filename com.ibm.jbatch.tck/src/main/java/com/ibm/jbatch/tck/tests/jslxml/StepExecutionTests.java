@@ -35,7 +35,7 @@ import com.ibm.jbatch.tck.artifacts.reusable.MyBatchletImpl;
 import com.ibm.jbatch.tck.artifacts.reusable.MyPersistentUserData;
 import com.ibm.jbatch.tck.utils.JobOperatorBridge;
 
-import org.junit.BeforeClass;
+import org.junit.Before;
 import org.testng.Reporter;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeMethod;
@@ -45,9 +45,9 @@ public class StepExecutionTests {
 
 	private final static Logger logger = Logger.getLogger(StepExecutionTests.class.getName());
 
-	private static JobOperatorBridge jobOp;
+	private JobOperatorBridge jobOp;
 
-	public static void setup(String[] args, Properties props) throws Exception {
+	public void setup(String[] args, Properties props) throws Exception {
 		String METHOD = "setup";
 
 		try {
@@ -58,13 +58,13 @@ public class StepExecutionTests {
 	}
 
 	@BeforeMethod
-	@BeforeClass
-	public static void setUp()throws Exception {
+	@Before
+	public void setUp()throws Exception {
 		jobOp = new JobOperatorBridge();
 	}
 
 	@AfterClass
-	public static void cleanup() throws Exception {
+	public void cleanup() throws Exception {
 	}
 
 	private void begin(String str) {
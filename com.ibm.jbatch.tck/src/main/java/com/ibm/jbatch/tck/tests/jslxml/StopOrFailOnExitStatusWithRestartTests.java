@@ -24,7 +24,7 @@ import java.util.Properties;
 import javax.batch.runtime.BatchStatus;
 import javax.batch.runtime.JobExecution;
 
-import org.junit.BeforeClass;
+import org.junit.Before;
 import org.testng.Reporter;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -34,13 +34,13 @@ import com.ibm.jbatch.tck.utils.TCKJobExecutionWrapper;
 
 public class StopOrFailOnExitStatusWithRestartTests {
 
-	private static JobOperatorBridge jobOp;
+	private JobOperatorBridge jobOp;
 
 	private void begin(String str) {
 		Reporter.log("Begin test method: " + str+"<p>");
 	}
 
-	public static void setup(String[] args, Properties props) throws Exception {
+	public void setup(String[] args, Properties props) throws Exception {
 		String METHOD = "setup";
 		try {
 			jobOp = new JobOperatorBridge();
@@ -50,12 +50,12 @@ public class StopOrFailOnExitStatusWithRestartTests {
 	}
 
 	@BeforeMethod
-	@BeforeClass
-	public static void setUp() throws Exception {
+	@Before
+	public void setUp() throws Exception {
 		jobOp = new JobOperatorBridge();
 	}
 
-	public static void cleanup() throws Exception {
+	public void cleanup() throws Exception {
 	}
 
 	/*
@@ -87,8 +87,8 @@ public class StopOrFailOnExitStatusWithRestartTests {
 			Reporter.log("StopRestart: Started job with execId=" + execID + "<p>");
 
 			int sleepTime = Integer.parseInt(System.getProperty("StopOrFailOnExitStatusWithRestartTests.testInvokeJobWithUserStop.sleep",DEFAULT_SLEEP_TIME));
-			Reporter.log("Sleep " +  sleepTime  + "<p>");
-			Thread.sleep(sleepTime); 
+			Reporter.log("Invoke waitForRunningArtifacts, for at most " + sleepTime + " msec<p>");
+			jobOp.waitForRunningArtifacts(execution1, 1, sleepTime);
 
 			BatchStatus exec1BatchStatus = execution1.getBatchStatus();
 			Reporter.log("execution #1 JobExecution getBatchStatus()="+ exec1BatchStatus + "<p>");
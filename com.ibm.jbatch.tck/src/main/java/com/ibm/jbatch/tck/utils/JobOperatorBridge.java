@@ -17,8 +17,11 @@
 package com.ibm.jbatch.tck.utils;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
 import javax.batch.operations.JobExecutionAlreadyCompleteException;
@@ -39,7 +42,13 @@ import javax.batch.runtime.StepExecution;
 
 import org.testng.Reporter;
 
+import com.ibm.jbatch.tck.polling.PollSchedule;
+import com.ibm.jbatch.tck.polling.PollScheduleAware;
+import com.ibm.jbatch.tck.polling.PollingStatistics;
+import com.ibm.jbatch.tck.polling.TCKRunningNotifier;
+import com.ibm.jbatch.tck.polling.TCKSharedPollingExecutionWaiterFactory;
 import com.ibm.jbatch.tck.spi.JobExecutionWaiter;
+import com.ibm.jbatch.tck.spi.JobExecutionWaiterAdapter;
 import com.ibm.jbatch.tck.spi.JobExecutionWaiterFactory;
 import com.ibm.jbatch.tck.spi.JobExecutionTimeoutException;
 
@@ -51,12 +60,167 @@ public class JobOperatorBridge {
 	
 	private JobOperator jobOp = BatchRuntime.getJobOperator();
 	private JobExecutionWaiterFactory waiterFactory = ServiceGateway.getJobExecutionWaiterFactoryService();
+	// Lazily created, see startJobsAndWaitForResults()
+	private JobExecutionWaiterFactory bulkWaiterFactory = null;
 
 	private int sleepTime = Integer.parseInt(System.getProperty("tck.execution.waiter.timeout", DEFAULT_JOB_OPERATOR_SLEEP_TIME));
+
+	/*
+	 * Poll schedule for the TCK's own waiter factories (ignored for any other factory).  With "fixed" (the default), 
+	 * the repository is polled every ".interval" msec.  With "backoff", the first poll is after ".initial" msec, and each
+	 * interval is ".multiplier" times the previous one, up to ".max" msec, randomly varied by +/- ".jitter" (a fraction).
+	 */
+	private String pollSchedule = System.getProperty("tck.execution.waiter.poll.schedule", PollSchedule.FIXED);
+	private long pollInterval = Long.parseLong(System.getProperty("tck.execution.waiter.poll.interval", "100"));
+	private long pollInitial = Long.parseLong(System.getProperty("tck.execution.waiter.poll.initial", "1"));
+	private long pollMax = Long.parseLong(System.getProperty("tck.execution.waiter.poll.max", "200"));
+	private double pollMultiplier = Double.parseDouble(System.getProperty("tck.execution.waiter.poll.multiplier", "2"));
+	private double pollJitter = Double.parseDouble(System.getProperty("tck.execution.waiter.poll.jitter", "0.1"));
+
 	private final String TIMEOUT_MSG = "Test failure due to timeout exception.  Either the timeout should be increased and there is nothing else wrong, " 
 	                 + "or perhaps the runtime implementation is handing and/or unresponsive<p>";
 	public JobOperatorBridge() {
 		super();        
+		configurePollSchedule();
+	}
+
+	private void configurePollSchedule() {
+		PollSchedule schedule = getPollSchedule();
+		if (waiterFactory instanceof PollScheduleAware) {
+			logger.fine("Using poll schedule: " + schedule);
+			((PollScheduleAware) waiterFactory).setPollSchedule(schedule);
+		} else {
+			logger.fine("Not a TCK waiter factory, so ignoring poll schedule: " + schedule);
+		}
+	}
+
+	private PollSchedule getPollSchedule() {
+		PollSchedule schedule = null;
+		if (PollSchedule.BACKOFF.equals(pollSchedule)) {
+			schedule = PollSchedule.backoff(pollInitial, pollMax, pollMultiplier, pollJitter);
+		} else if (PollSchedule.FIXED.equals(pollSchedule)) {
+			schedule = PollSchedule.fixed(pollInterval);
+		} else {
+			throw new IllegalArgumentException("Unknown value for tck.execution.waiter.poll.schedule: " + pollSchedule);
+		}
+		return schedule;
+	}
+
+	/*
+	 * Common to all the "...AndWaitForResult" methods. 
+	 */
+	private JobExecution waitForTermination(long executionId) throws JobExecutionTimeoutException {
+		JobExecution terminatedJobExecution = null;
+
+		JobExecutionWaiter waiter = waiterFactory.createWaiter(executionId, jobOp, sleepTime);
+
+		long startTime = System.currentTimeMillis();
+		try {
+			terminatedJobExecution = waiter.awaitTermination();
+		} catch (JobExecutionTimeoutException e) {
+			logger.severe(TIMEOUT_MSG);
+			Reporter.log(TIMEOUT_MSG);
+			throw e;
+		} finally {
+			TCKTestTimings.waited(System.currentTimeMillis() - startTime);
+		}									
+		TCKTestTimings.executionTerminated(terminatedJobExecution);
+		
+		if (waiter instanceof PollingStatistics) {
+			long waitTime = System.currentTimeMillis() - startTime;
+			int reads = ((PollingStatistics) waiter).getRepositoryReads();
+			logger.fine("Waited " + waitTime + " msec for execution id " + executionId + ", with " + reads + " repository reads");
+			Reporter.log("Waited " + waitTime + " msec for execution id " + executionId + ", with " + reads + " repository reads<p>");
+		}
+
+		return terminatedJobExecution;
+	}
+
+	/*
+	 * Joins all the futures, so that several executions are waited for at once rather than one 
+	 * after another.  Returns the terminated executions in the same order as the futures.
+	 */
+	private List<TCKJobExecutionWrapper> waitForResults(List<Future<JobExecution>> futures) throws JobExecutionTimeoutException {
+		List<TCKJobExecutionWrapper> results = new ArrayList<TCKJobExecutionWrapper>(futures.size());
+		long startTime = System.currentTimeMillis();
+		for (Future<JobExecution> future : futures) {
+			try {
+				TCKJobExecutionWrapper result = new TCKJobExecutionWrapper(future.get(), jobOp);
+				TCKTestTimings.executionTerminated(result);
+				results.add(result);
+			} catch (InterruptedException e) {
+				throw new IllegalStateException("Aborting on interrupt", e);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof JobExecutionTimeoutException) {
+					logger.severe(TIMEOUT_MSG);
+					Reporter.log(TIMEOUT_MSG);
+					throw (JobExecutionTimeoutException) cause;
+				} else if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				} else {
+					throw new IllegalStateException("Caught exception waiting for job execution", cause);
+				}
+			}
+		}
+		TCKTestTimings.waited(System.currentTimeMillis() - startTime);
+		return results;
+	}
+
+	/*
+	 * If we're using one of the TCK's own (polling) factories anyway, switch to the shared poller
+	 * so that a large number of executions doesn't mean a large number of waiting threads.
+	 * Otherwise stick to the implementation's own factory.
+	 */
+	private synchronized JobExecutionWaiterFactory getBulkWaiterFactory() {
+		if (bulkWaiterFactory == null) {
+			if (waiterFactory instanceof PollScheduleAware) {
+				TCKSharedPollingExecutionWaiterFactory sharedFactory = new TCKSharedPollingExecutionWaiterFactory();
+				sharedFactory.setPollSchedule(getPollSchedule());
+				bulkWaiterFactory = sharedFactory;
+			} else {
+				bulkWaiterFactory = waiterFactory;
+			}
+		}
+		return bulkWaiterFactory;
+	}
+
+	/**
+	 * Starts all the jobs, one after another without waiting, then waits for all of them 
+	 * to terminate, through AsyncJobExecutionWaiter (adapting the factory's waiters if need be).
+	 * 
+	 * @param submissions Job names and parameters
+	 * @return Terminated executions and their latencies, in the same order as the submissions
+	 * @throws JobExecutionTimeoutException If any of the executions timed out
+	 */
+	public TCKBulkExecutionResult startJobsAndWaitForResults(List<TCKJobSubmission> submissions) throws JobStartException, JobSecurityException, JobExecutionTimeoutException {
+		JobExecutionWaiterFactory factory = getBulkWaiterFactory();
+
+		List<Future<JobExecution>> futures = new ArrayList<Future<JobExecution>>(submissions.size());
+		long startTime = System.currentTimeMillis();
+		for (TCKJobSubmission submission : submissions) {
+			long executionId = jobOp.start(submission.getJobName(), submission.getJobParameters());
+			TCKTestTimings.jobStarted();
+			JobExecutionWaiter waiter = factory.createWaiter(executionId, jobOp, sleepTime);
+			futures.add(JobExecutionWaiterAdapter.adapt(waiter).awaitTerminationAsync());
+		}
+		logger.fine("Submitted " + submissions.size() + " jobs in " + (System.currentTimeMillis() - startTime) + " msec");
+
+		List<TCKJobExecutionWrapper> executions = waitForResults(futures);
+		long elapsedTime = System.currentTimeMillis() - startTime;
+
+		// Both ends from the runtime, rather than mixing its clock with ours
+		List<Long> latencies = new ArrayList<Long>(executions.size());
+		for (TCKJobExecutionWrapper execution : executions) {
+			Date createTime = execution.getCreateTime();
+			Date endTime = execution.getEndTime();
+			latencies.add(createTime != null && endTime != null ? endTime.getTime() - createTime.getTime() : -1L);
+		}
+
+		TCKBulkExecutionResult result = new TCKBulkExecutionResult(executions, latencies, elapsedTime);
+		logger.fine("Bulk execution result: " + result);
+		Reporter.log("Bulk execution result: " + result + "<p>");
+		return result;
 	}
 
 	public List<String> getJobNames() throws JobSecurityException {
@@ -79,22 +243,16 @@ public class JobOperatorBridge {
 
 		JobExecution terminatedJobExecution = null;
 		long newExecutionId = jobOp.restart(oldExecutionId, restartJobParameters);
+		TCKTestTimings.jobRestarted();
 
-		JobExecutionWaiter waiter = waiterFactory.createWaiter(newExecutionId, jobOp, sleepTime);
-
-		try {
-			terminatedJobExecution = waiter.awaitTermination();
-		} catch (JobExecutionTimeoutException e) {
-			logger.severe(TIMEOUT_MSG);
-			Reporter.log(TIMEOUT_MSG);
-			throw e;
-		}									
+		terminatedJobExecution = waitForTermination(newExecutionId);
 
 		return new TCKJobExecutionWrapper(terminatedJobExecution, jobOp);
 	}
 	
 	public TCKJobExecutionWrapper restartJobWithoutWaitingForResult(long oldExecutionId, Properties jobParameters) throws NoSuchJobExecutionException, NoSuchJobException, JobRestartException, JobExecutionAlreadyCompleteException, JobExecutionNotMostRecentException, JobSecurityException, JobExecutionTimeoutException {
 		Long execID = (Long)jobOp.restart(oldExecutionId, jobParameters);
+		TCKTestTimings.jobRestarted();
 		JobExecution jobExecution = jobOp.getJobExecution(execID);
 		return new TCKJobExecutionWrapper(jobExecution, jobOp);
 	}
@@ -109,6 +267,7 @@ public class JobOperatorBridge {
 
 	public TCKJobExecutionWrapper startJobWithoutWaitingForResult(String jobName, Properties jobParameters) throws JobStartException, NoSuchJobExecutionException, JobSecurityException {
 		Long execID = (Long)jobOp.start(jobName, jobParameters);
+		TCKTestTimings.jobStarted();
 		JobExecution jobExecution = jobOp.getJobExecution(execID);
 		return new TCKJobExecutionWrapper(jobExecution, jobOp);
 	}
@@ -117,6 +276,30 @@ public class JobOperatorBridge {
 		jobOp.stop(jobInstanceId);
 	}
 
+	/**
+	 * Waits until the given number of artifacts (e.g. one per partition) signal through TCKRunningNotifier 
+	 * that they are running, for use before stopping a job that was started without waiting.
+	 * 
+	 * The signals can only arrive when the job runs in the TCK's own JVM and class loader.  If they don't arrive 
+	 * within the fallback timeout, this logs a warning and returns, so pass the fixed sleep the test would 
+	 * otherwise have needed, not the (much longer) job execution waiter timeout.
+	 * 
+	 * @param jobExecution
+	 * @param parties
+	 * @param fallbackTimeout In milliseconds
+	 */
+	public void waitForRunningArtifacts(JobExecution jobExecution, int parties, long fallbackTimeout) throws InterruptedException {
+		long startTime = System.currentTimeMillis();
+		if (TCKRunningNotifier.awaitRunning(jobExecution.getExecutionId(), parties, fallbackTimeout)) {
+			long waitTime = System.currentTimeMillis() - startTime;
+			logger.fine("Waited " + waitTime + " msec for " + parties + " running artifact(s) of executionId = " + jobExecution.getExecutionId());
+			Reporter.log("Waited " + waitTime + " msec for " + parties + " running artifact(s)<p>");
+		} else {
+			logger.warning("Timed out after " + fallbackTimeout + " msec waiting for " + parties + " running artifact(s) of executionId = " + jobExecution.getExecutionId() + ", continuing anyway");
+			Reporter.log("Timed out after " + fallbackTimeout + " msec waiting for " + parties + " running artifact(s), continuing anyway<p>");
+		}
+	}
+
 	/*
 	 * I haven't mentally proven it to myself but I'm assuming this can ONLY be used
 	 * after startJobWithoutWaitingForResult(), not after startJobAndWaitForResult().
@@ -126,15 +309,7 @@ public class JobOperatorBridge {
 		JobExecution terminatedJobExecution = null;
 		jobOp.stop(jobExecution.getExecutionId());
 
-		JobExecutionWaiter waiter = waiterFactory.createWaiter(jobExecution.getExecutionId(), jobOp, sleepTime);
-
-		try {
-			terminatedJobExecution = waiter.awaitTermination();
-		} catch (JobExecutionTimeoutException e) {
-			logger.severe(TIMEOUT_MSG);
-			Reporter.log(TIMEOUT_MSG);
-			throw e;
-		}									
+		terminatedJobExecution = waitForTermination(jobExecution.getExecutionId());
 
 		return new TCKJobExecutionWrapper(terminatedJobExecution, jobOp);
 	}
@@ -143,16 +318,9 @@ public class JobOperatorBridge {
 	public TCKJobExecutionWrapper startJobAndWaitForResult(String jobName, Properties jobParameters) throws JobStartException, NoSuchJobExecutionException, JobSecurityException, JobExecutionTimeoutException{
 		JobExecution terminatedJobExecution = null;
 		long executionId = jobOp.start(jobName, jobParameters);
+		TCKTestTimings.jobStarted();
 
-		JobExecutionWaiter waiter = waiterFactory.createWaiter(executionId, jobOp, sleepTime);
-
-		try {
-			terminatedJobExecution = waiter.awaitTermination();
-		} catch (JobExecutionTimeoutException e) {
-			logger.severe(TIMEOUT_MSG);
-			Reporter.log(TIMEOUT_MSG);
-			throw e;
-		}									
+		terminatedJobExecution = waitForTermination(executionId);
 
 		return new TCKJobExecutionWrapper(terminatedJobExecution, jobOp);
 	}
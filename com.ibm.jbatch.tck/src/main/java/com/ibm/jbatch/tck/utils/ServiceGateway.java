@@ -16,6 +16,7 @@
 */
 package com.ibm.jbatch.tck.utils;
 
+import java.lang.reflect.InvocationTargetException;
 import java.util.ServiceLoader;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -27,8 +28,20 @@ import com.ibm.jbatch.tck.spi.JobExecutionWaiterFactory;
 public class ServiceGateway {
     private final static Logger logger = Logger.getLogger(ServiceGateway.class.getName());
 
+    /*
+     * Set to a JobExecutionWaiterFactory class name to use that instead of the first one found
+     * through the service loader, e.g. to pick between the factories the TCK itself provides.
+     */
+    public static final String WAITER_FACTORY_PROPERTY = "tck.execution.waiter.factory";
+
     public static JobExecutionWaiterFactory getJobExecutionWaiterFactoryService() { 
     	JobExecutionWaiterFactory services = null;
+
+    	String factoryClassName = System.getProperty(WAITER_FACTORY_PROPERTY);
+    	if (factoryClassName != null && !factoryClassName.trim().isEmpty()) {
+    		return loadJobExecutionWaiterFactory(factoryClassName.trim());
+    	}
+
         ServiceLoader<JobExecutionWaiterFactory> loader = 
             ServiceLoader.load(JobExecutionWaiterFactory.class);
 
@@ -49,4 +62,35 @@ public class ServiceGateway {
         }
         return services;
     } 
+
+    private static JobExecutionWaiterFactory loadJobExecutionWaiterFactory(String className) {
+        Throwable failure;
+        try {
+            ClassLoader cl = Thread.currentThread().getContextClassLoader();
+            if (cl == null) {
+                cl = ServiceGateway.class.getClassLoader();
+            }
+            Class<? extends JobExecutionWaiterFactory> clazz = Class.forName(className, true, cl).asSubclass(JobExecutionWaiterFactory.class);
+            JobExecutionWaiterFactory factory = clazz.getConstructor().newInstance();
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine("Loaded JobExecutionWaiterFactory with className = " + className + " from " + WAITER_FACTORY_PROPERTY);
+            }
+            Reporter.log("Loaded JobExecutionWaiterFactory with className = " + className + " from " + WAITER_FACTORY_PROPERTY + "<p>");
+            return factory;
+        } catch (ClassNotFoundException e) {
+            failure = e;
+        } catch (ClassCastException e) {
+            failure = e;
+        } catch (NoSuchMethodException e) {
+            failure = e;
+        } catch (InstantiationException e) {
+            failure = e;
+        } catch (IllegalAccessException e) {
+            failure = e;
+        } catch (InvocationTargetException e) {
+            // Thrown by the factory's own constructor
+            failure = e.getCause();
+        }
+        throw new IllegalStateException("Couldn't load JobExecutionWaiterFactory " + className + " set via system property: " + WAITER_FACTORY_PROPERTY, failure);
+    }
 }
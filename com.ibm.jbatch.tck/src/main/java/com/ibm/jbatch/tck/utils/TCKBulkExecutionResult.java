@@ -0,0 +1,95 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.utils;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of JobOperatorBridge.startJobsAndWaitForResults(), with the terminated
+ * executions and the create-to-end latency of each, both in submission order.
+ */
+public class TCKBulkExecutionResult {
+
+	private final List<TCKJobExecutionWrapper> executions;
+	private final List<Long> latencies;
+	private final long elapsedTime;
+
+	TCKBulkExecutionResult(List<TCKJobExecutionWrapper> executions, List<Long> latencies, long elapsedTime) {
+		this.executions = Collections.unmodifiableList(executions);
+		this.latencies = Collections.unmodifiableList(latencies);
+		this.elapsedTime = elapsedTime;
+	}
+
+	public List<TCKJobExecutionWrapper> getExecutions() {
+		return executions;
+	}
+
+	/**
+	 * @return For each execution, msec from the execution's create time to its end time, both
+	 * as reported by the runtime (so on the runtime's clock, not the TCK's), or -1 if the runtime
+	 * reported either one as null
+	 */
+	public List<Long> getLatencies() {
+		return latencies;
+	}
+
+	/**
+	 * @return msec from the first submission until the last execution was seen to terminate
+	 */
+	public long getElapsedTime() {
+		return elapsedTime;
+	}
+
+	/**
+	 * @return The highest of the known latencies, or 0 if none are known
+	 */
+	public long getMaxLatency() {
+		long max = 0;
+		for (Long latency : latencies) {
+			max = Math.max(max, latency);
+		}
+		return max;
+	}
+
+	/**
+	 * @return The average of the known latencies, or 0 if none are known
+	 */
+	public double getAverageLatency() {
+		long total = 0;
+		int known = 0;
+		for (Long latency : latencies) {
+			if (latency >= 0) {
+				total += latency;
+				known++;
+			}
+		}
+		return known == 0 ? 0 : (double) total / known;
+	}
+
+	/**
+	 * @return Executions completed per second, over the elapsed time
+	 */
+	public double getThroughput() {
+		return elapsedTime == 0 ? 0 : executions.size() * 1000.0 / elapsedTime;
+	}
+
+	public String toString() {
+		return executions.size() + " executions in " + elapsedTime + " msec (" + getThroughput() + " per sec), average latency = "
+				+ getAverageLatency() + " msec, max latency = " + getMaxLatency() + " msec";
+	}
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.utils;
+
+import java.util.Properties;
+
+/**
+ * One job to start, as passed to JobOperatorBridge.startJobsAndWaitForResults().
+ */
+public class TCKJobSubmission {
+
+	private final String jobName;
+	private final Properties jobParameters;
+
+	public TCKJobSubmission(String jobName, Properties jobParameters) {
+		this.jobName = jobName;
+		this.jobParameters = jobParameters;
+	}
+
+	public String getJobName() {
+		return jobName;
+	}
+
+	public Properties getJobParameters() {
+		return jobParameters;
+	}
+
+	public String toString() {
+		return "jobName=" + jobName + " jobParameters=" + jobParameters;
+	}
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import javax.batch.runtime.JobExecution;
+
+/**
+ * What one invocation of a test method spent on its jobs, as recorded by JobOperatorBridge on the test's own 
+ * thread, for TCKTimingReporter.
+ *
+ * JobOperatorBridge calls are only recorded between begin() and end() on the same thread, so they cost nothing 
+ * when the reporter isn't configured, and tests run in parallel (on different threads) are kept apart.
+ *
+ * Unlike TCKTimingReporter, this is part of the CTS sources too, so must not use TestNG.
+ */
+public class TCKTestTimings {
+
+	private static final ThreadLocal<TCKTestTimings> current = new ThreadLocal<TCKTestTimings>();
+
+	private final String className;
+	private final String methodName;
+	private final long startTime = System.currentTimeMillis();
+	private long endTime = -1;
+	private String status = null;
+	private long waitTime = 0;
+	private int starts = 0;
+	private int restarts = 0;
+	private final List<ExecutionTimes> executions = new ArrayList<ExecutionTimes>();
+
+	private TCKTestTimings(String className, String methodName) {
+		this.className = className;
+		this.methodName = methodName;
+	}
+
+	/**
+	 * Starts recording for a test method invocation on this thread.
+	 */
+	public static void begin(String className, String methodName) {
+		current.set(new TCKTestTimings(className, methodName));
+	}
+
+	/**
+	 * Stops recording on this thread.
+	 * 
+	 * @param status E.g. "SUCCESS"
+	 * @return What was recorded since begin(), or null if begin() wasn't called
+	 */
+	public static TCKTestTimings end(String status) {
+		TCKTestTimings timings = current.get();
+		current.remove();
+		if (timings != null) {
+			timings.endTime = System.currentTimeMillis();
+			timings.status = status;
+		}
+		return timings;
+	}
+
+	static void jobStarted() {
+		TCKTestTimings timings = current.get();
+		if (timings != null) {
+			timings.starts++;
+		}
+	}
+
+	static void jobRestarted() {
+		TCKTestTimings timings = current.get();
+		if (timings != null) {
+			timings.restarts++;
+		}
+	}
+
+	/**
+	 * @param millis Time spent waiting for executions to terminate
+	 */
+	static void waited(long millis) {
+		TCKTestTimings timings = current.get();
+		if (timings != null) {
+			timings.waitTime += millis;
+		}
+	}
+
+	static void executionTerminated(JobExecution jobExecution) {
+		TCKTestTimings timings = current.get();
+		if (timings != null && jobExecution != null) {
+			timings.executions.add(new ExecutionTimes(jobExecution));
+		}
+	}
+
+	public String getClassName() {
+		return className;
+	}
+
+	public String getMethodName() {
+		return methodName;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return msec since the epoch
+	 */
+	public long getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * @return msec since the epoch
+	 */
+	public long getEndTime() {
+		return endTime;
+	}
+
+	/**
+	 * @return msec from begin() to end()
+	 */
+	public long getWallTime() {
+		return endTime - startTime;
+	}
+
+	/**
+	 * @return msec spent in JobExecutionWaiter.awaitTermination(), or waiting on the futures of executions
+	 */
+	public long getWaitTime() {
+		return waitTime;
+	}
+
+	public int getStarts() {
+		return starts;
+	}
+
+	public int getRestarts() {
+		return restarts;
+	}
+
+	/**
+	 * @return The executions waited for, in the order they were seen to terminate
+	 */
+	public List<ExecutionTimes> getExecutions() {
+		return Collections.unmodifiableList(executions);
+	}
+
+	/**
+	 * The times the runtime reported for one terminated execution, in msec since the epoch, or -1 where it reported none.
+	 */
+	public static class ExecutionTimes {
+
+		private final long executionId;
+		private final String jobName;
+		private final String batchStatus;
+		private final long createTime;
+		private final long startTime;
+		private final long endTime;
+
+		private ExecutionTimes(JobExecution jobExecution) {
+			this.executionId = jobExecution.getExecutionId();
+			this.jobName = jobExecution.getJobName();
+			this.batchStatus = String.valueOf(jobExecution.getBatchStatus());
+			this.createTime = millis(jobExecution.getCreateTime());
+			this.startTime = millis(jobExecution.getStartTime());
+			this.endTime = millis(jobExecution.getEndTime());
+		}
+
+		private static long millis(Date date) {
+			return date == null ? -1 : date.getTime();
+		}
+
+		public long getExecutionId() {
+			return executionId;
+		}
+
+		public String getJobName() {
+			return jobName;
+		}
+
+		public String getBatchStatus() {
+			return batchStatus;
+		}
+
+		public long getCreateTime() {
+			return createTime;
+		}
+
+		public long getStartTime() {
+			return startTime;
+		}
+
+		public long getEndTime() {
+			return endTime;
+		}
+
+		/**
+		 * @return msec from start to end, or -1 if either is missing
+		 */
+		public long getElapsedTime() {
+			return startTime < 0 || endTime < 0 ? -1 : endTime - startTime;
+		}
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2013 International Business Machines Corp.
+ *
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership. Licensed under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+package com.ibm.jbatch.tck.utils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.IReporter;
+import org.testng.ISuite;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+/**
+ * TestNG listener recording, for each test method invocation, its wall time, the time spent waiting for job 
+ * executions to terminate, its job starts and restarts, and the runtime's create, start and end times of each 
+ * execution it waited for (see TCKTestTimings); and writing them all out, once the suite is done, to 
+ * tck-timings.json and tck-timings.csv (one line per test method invocation) in the TestNG output directory, 
+ * which is the "results" directory when the TCK is run from its Ant build.
+ *
+ * Configured with a listener element in the suite XML, or with the TestNG -listener option.  The times are 
+ * only as good as the runtime's and the waiter's, and only JobOperatorBridge calls made on the test method's 
+ * own thread are recorded.
+ *
+ * Left out of the CTS sources (see com.ibm.jbatch.tck.cts/pom.xml), which have no TestNG.
+ */
+public class TCKTimingReporter implements IInvokedMethodListener, IReporter {
+
+	private final static Logger logger = Logger.getLogger(TCKTimingReporter.class.getName());
+
+	public static final String JSON_REPORT = "tck-timings.json";
+	public static final String CSV_REPORT = "tck-timings.csv";
+
+	private static final String CSV_HEADER = "class,method,status,startTime,endTime,wallMs,waitMs,starts,restarts,executions,executionMs";
+
+	private final List<TCKTestTimings> finished = new ArrayList<TCKTestTimings>();
+
+	@Override
+	public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+		if (method.isTestMethod()) {
+			TCKTestTimings.begin(testResult.getTestClass().getName(), testResult.getMethod().getMethodName());
+		}
+	}
+
+	@Override
+	public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+		if (method.isTestMethod()) {
+			TCKTestTimings timings = TCKTestTimings.end(statusName(testResult.getStatus()));
+			if (timings != null) {
+				synchronized (finished) {
+					finished.add(timings);
+				}
+			}
+		}
+	}
+
+	private static String statusName(int status) {
+		switch (status) {
+		case ITestResult.SUCCESS:
+			return "SUCCESS";
+		case ITestResult.FAILURE:
+			return "FAILURE";
+		case ITestResult.SKIP:
+			return "SKIP";
+		case ITestResult.SUCCESS_PERCENTAGE_FAILURE:
+			return "SUCCESS_PERCENTAGE_FAILURE";
+		default:
+			return String.valueOf(status);
+		}
+	}
+
+	@Override
+	public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
+		List<TCKTestTimings> timings;
+		synchronized (finished) {
+			timings = new ArrayList<TCKTestTimings>(finished);
+		}
+		File dir = new File(outputDirectory);
+		dir.mkdirs();
+		try {
+			writeJson(new File(dir, JSON_REPORT), timings);
+			writeCsv(new File(dir, CSV_REPORT), timings);
+			logger.fine("Wrote timings of " + timings.size() + " test method invocations to " + dir.getAbsolutePath());
+		} catch (IOException e) {
+			// Don't fail the run over the report
+			logger.log(Level.WARNING, "Couldn't write TCK timing report to " + dir.getAbsolutePath(), e);
+		}
+	}
+
+	private void writeJson(File file, List<TCKTestTimings> timings) throws IOException {
+		Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+		try {
+			out.write("{\"tests\":[");
+			for (int i = 0; i < timings.size(); i++) {
+				TCKTestTimings test = timings.get(i);
+				out.write(i == 0 ? "\n" : ",\n");
+				out.write("{\"class\":" + quote(test.getClassName()) + ",\"method\":" + quote(test.getMethodName()) 
+						+ ",\"status\":" + quote(test.getStatus()) + ",\"startTime\":" + test.getStartTime() 
+						+ ",\"endTime\":" + test.getEndTime() + ",\"wallMs\":" + test.getWallTime() + ",\"waitMs\":" + test.getWaitTime() 
+						+ ",\"starts\":" + test.getStarts() + ",\"restarts\":" + test.getRestarts() + ",\"executions\":[");
+				List<TCKTestTimings.ExecutionTimes> executions = test.getExecutions();
+				for (int j = 0; j < executions.size(); j++) {
+					TCKTestTimings.ExecutionTimes execution = executions.get(j);
+					out.write(j == 0 ? "" : ",");
+					out.write("{\"executionId\":" + execution.getExecutionId() + ",\"jobName\":" + quote(execution.getJobName()) 
+							+ ",\"batchStatus\":" + quote(execution.getBatchStatus()) + ",\"createTime\":" + execution.getCreateTime() 
+							+ ",\"startTime\":" + execution.getStartTime() + ",\"endTime\":" + execution.getEndTime() 
+							+ ",\"elapsedMs\":" + execution.getElapsedTime() + "}");
+				}
+				out.write("]}");
+			}
+			out.write("\n]}\n");
+		} finally {
+			out.close();
+		}
+	}
+
+	private void writeCsv(File file, List<TCKTestTimings> timings) throws IOException {
+		Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+		try {
+			out.write(CSV_HEADER + "\n");
+			for (TCKTestTimings test : timings) {
+				long executionTime = 0;
+				for (TCKTestTimings.ExecutionTimes execution : test.getExecutions()) {
+					if (execution.getElapsedTime() > 0) {
+						executionTime += execution.getElapsedTime();
+					}
+				}
+				// Class and method names are Java identifiers, so need no quoting
+				out.write(test.getClassName() + "," + test.getMethodName() + "," + test.getStatus() + "," + test.getStartTime() + "," 
+						+ test.getEndTime() + "," + test.getWallTime() + "," + test.getWaitTime() + "," + test.getStarts() + "," 
+						+ test.getRestarts() + "," + test.getExecutions().size() + "," + executionTime + "\n");
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	private static String quote(String s) {
+		if (s == null) {
+			return "null";
+		}
+		StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == '"' || c == '\\') {
+				sb.append('\\').append(c);
+			} else if (c < 0x20) {
+				sb.append(String.format("\\u%04x", (int) c));
+			} else {
+				sb.append(c);
+			}
+		}
+		return sb.append('"').toString();
+	}
+}